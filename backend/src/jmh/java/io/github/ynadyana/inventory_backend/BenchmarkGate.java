@@ -0,0 +1,172 @@
+package io.github.ynadyana.inventory_backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Entry point of the benchmark profile. Runs JMH with the command-line arguments it is given,
+ * writes the results as JMH JSON (jmh.result), and exits non-zero if any benchmark regressed
+ * against a baseline file in the same format (jmh.baseline, typically the previous release's
+ * result). Without a baseline file it only runs and records.
+ *
+ * A benchmark regresses when its score is worse than the baseline by more than its allowed
+ * fraction (jmh.max-regression, overridden per benchmark by jmh.thresholds entries such as
+ * "UploadServingBenchmark=0.5") and the gap is wider than both runs' error margins added
+ * together, so noise alone does not fail the build. Throughput must not drop; every other mode
+ * must not rise. Benchmarks present on only one side are listed but not gated.
+ */
+public final class BenchmarkGate {
+
+    private record Score(String mode, double score, double error, String unit) {}
+
+    private BenchmarkGate() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp()) {
+            cli.showHelp();
+            return;
+        }
+        if (cli.shouldList()) {
+            new Runner(cli).list();
+            return;
+        }
+
+        Path resultFile = Path.of(System.getProperty("jmh.result", "target/jmh-result.json"));
+        if (resultFile.getParent() != null) {
+            Files.createDirectories(resultFile.getParent());
+        }
+        Options options = new OptionsBuilder()
+                .parent(cli)
+                .result(resultFile.toString())
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        String baseline = System.getProperty("jmh.baseline", "");
+        if (baseline.isBlank() || !Files.isRegularFile(Path.of(baseline))) {
+            System.out.println("No baseline at '" + baseline + "'; results written to " + resultFile);
+            return;
+        }
+        double maxRegression = Double.parseDouble(System.getProperty("jmh.max-regression", "0.10"));
+        Map<String, Double> thresholds = parseThresholds(System.getProperty("jmh.thresholds", ""));
+
+        Map<String, Score> before = read(Path.of(baseline));
+        Map<String, Score> after = new TreeMap<>();
+        for (RunResult run : results) {
+            Result<?> primary = run.getPrimaryResult();
+            after.put(key(run.getParams().getBenchmark(), paramsOf(run)),
+                    new Score(run.getParams().getMode().shortLabel(), primary.getScore(), primary.getScoreError(), primary.getScoreUnit()));
+        }
+
+        List<String> regressions = new ArrayList<>();
+        System.out.println();
+        System.out.printf("%-80s %14s %14s %8s%n", "Benchmark (vs " + baseline + ")", "baseline", "current", "change");
+        for (Map.Entry<String, Score> entry : after.entrySet()) {
+            String name = entry.getKey();
+            Score now = entry.getValue();
+            Score then = before.get(name);
+            if (then == null || !then.mode().equals(now.mode()) || !then.unit().equals(now.unit())) {
+                System.out.printf("%-80s %14s %14.3f %8s%n", name, "-", now.score(), "new");
+                continue;
+            }
+            // Positive = worse, as a fraction of the baseline
+            double worse = now.mode().equals("thrpt")
+                    ? (then.score() - now.score()) / then.score()
+                    : (now.score() - then.score()) / then.score();
+            double allowed = allowedRegression(name, thresholds, maxRegression);
+            boolean beyondNoise = Math.abs(now.score() - then.score()) > finite(now.error()) + finite(then.error());
+            boolean regressed = worse > allowed && beyondNoise;
+            System.out.printf("%-80s %14.3f %14.3f %+7.1f%%%s%n", name, then.score(), now.score(), -worse * 100,
+                    regressed ? "  REGRESSION (allowed " + Math.round(allowed * 100) + "%)" : "");
+            if (regressed) {
+                regressions.add(name);
+            }
+        }
+        before.keySet().stream().filter(name -> !after.containsKey(name))
+                .forEach(name -> System.out.printf("%-80s %14.3f %14s %8s%n", name, before.get(name).score(), "-", "not run"));
+
+        if (!regressions.isEmpty()) {
+            System.err.println(regressions.size() + " benchmark(s) regressed: " + regressions);
+            System.exit(1);
+        }
+    }
+
+    // "com.x.FooBenchmark.bar" + {size=10} -> "FooBenchmark.bar(size=10)"
+    private static String key(String benchmark, Map<String, String> params) {
+        String[] parts = benchmark.split("\\.");
+        String shortName = parts.length >= 2 ? parts[parts.length - 2] + "." + parts[parts.length - 1] : benchmark;
+        if (params.isEmpty()) {
+            return shortName;
+        }
+        StringBuilder sb = new StringBuilder(shortName).append('(');
+        new TreeMap<>(params).forEach((k, v) -> sb.append(k).append('=').append(v).append(','));
+        sb.setLength(sb.length() - 1);
+        return sb.append(')').toString();
+    }
+
+    private static Map<String, String> paramsOf(RunResult run) {
+        Map<String, String> params = new HashMap<>();
+        for (String name : run.getParams().getParamsKeys()) {
+            params.put(name, run.getParams().getParam(name));
+        }
+        return params;
+    }
+
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            Map<String, String> params = new HashMap<>();
+            if (run.has("params")) {
+                run.get("params").fields().forEachRemaining(e -> params.put(e.getKey(), e.getValue().asText()));
+            }
+            JsonNode primary = run.get("primaryMetric");
+            scores.put(key(run.get("benchmark").asText(), params), new Score(run.get("mode").asText(),
+                    primary.get("score").asDouble(), primary.get("scoreError").asDouble(Double.NaN), primary.get("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    // "UploadServingBenchmark=0.5,PasswordHashBenchmark.verify=0.2"; the longest matching prefix wins
+    private static Map<String, Double> parseThresholds(String spec) {
+        Map<String, Double> thresholds = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] kv = entry.trim().split("=");
+            if (kv.length == 2) {
+                thresholds.put(kv[0].trim(), Double.parseDouble(kv[1].trim()));
+            }
+        }
+        return thresholds;
+    }
+
+    private static double allowedRegression(String name, Map<String, Double> thresholds, double fallback) {
+        return thresholds.entrySet().stream()
+                .filter(e -> name.startsWith(e.getKey()))
+                .max((a, b) -> Integer.compare(a.getKey().length(), b.getKey().length()))
+                .map(Map.Entry::getValue)
+                .orElse(fallback);
+    }
+
+    // JMH reports NaN error for a single iteration
+    private static double finite(double error) {
+        return Double.isFinite(error) ? error : 0;
+    }
+}
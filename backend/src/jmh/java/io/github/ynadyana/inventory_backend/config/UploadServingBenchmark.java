@@ -0,0 +1,128 @@
+package io.github.ynadyana.inventory_backend.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.servlets.DefaultServlet;
+import org.apache.catalina.startup.Tomcat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// GET /uploads/<file> over loopback HTTP/1.1 keep-alive, 4 concurrent clients: the previous
+// Spring MVC resource handler ("spring") against UploadsConfig's Tomcat DefaultServlet mount
+// with sendfile ("tomcat"), for a card-sized rendition and a large original.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class UploadServingBenchmark {
+
+    @Param({"spring", "tomcat"})
+    private String handler;
+
+    @Param({"40960", "2097152"})
+    private int bytes;
+
+    private Path baseDir;
+    private Tomcat tomcat;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, LifecycleException {
+        baseDir = Files.createTempDirectory("upload-bench");
+        Path uploads = Files.createDirectories(baseDir.resolve("uploads"));
+        byte[] content = new byte[bytes];
+        new Random(42).nextBytes(content);
+        Files.write(uploads.resolve("image.jpg"), content);
+
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.resolve("tomcat").toString());
+        tomcat.setPort(0);
+        Context context = tomcat.addContext("", Files.createDirectories(baseDir.resolve("docroot")).toString());
+
+        if (handler.equals("tomcat")) {
+            UploadsConfig.mount(context, uploads);
+            Wrapper servlet = Tomcat.addServlet(context, "uploads", new DefaultServlet());
+            servlet.addInitParameter("listings", "false");
+            servlet.addInitParameter("sendfileSize", "48");
+        } else {
+            Tomcat.addServlet(context, "uploads", new SpringResourceServlet(uploads));
+        }
+        context.addServletMappingDecoded(UploadsConfig.MOUNT + "/*", "uploads");
+        tomcat.start();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + tomcat.getConnector().getLocalPort() + "/uploads/image.jpg"))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws LifecycleException, IOException {
+        tomcat.stop();
+        tomcat.destroy();
+        FileSystemUtils.deleteRecursively(baseDir);
+    }
+
+    @Benchmark
+    public long fetch() throws IOException, InterruptedException {
+        // Body is read off the socket and dropped, so the client side costs the same for both
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected response " + response.statusCode());
+        }
+        return response.headers().firstValueAsLong("Content-Length").orElse(-1);
+    }
+
+    // The handler WebConfig used to register for "/uploads/**" -> "file:uploads/"
+    private static final class SpringResourceServlet extends HttpServlet {
+
+        private final ResourceHttpRequestHandler handler = new ResourceHttpRequestHandler();
+
+        SpringResourceServlet(Path uploads) {
+            handler.setLocations(List.of(new FileSystemResource(uploads.toString() + "/")));
+            try {
+                handler.afterPropertiesSet();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, request.getPathInfo().substring(1));
+            try {
+                handler.handleRequest(request, response);
+            } catch (jakarta.servlet.ServletException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.ynadyana.inventory_backend.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.ynadyana.inventory_backend.dashboard.repository.DailyOrderRollupRepository;
+import io.github.ynadyana.inventory_backend.dashboard.service.OrderRollupService;
+import io.github.ynadyana.inventory_backend.order.dto.OrderFilter;
+import io.github.ynadyana.inventory_backend.order.dto.OrderItemRow;
+import io.github.ynadyana.inventory_backend.order.dto.OrderPage;
+import io.github.ynadyana.inventory_backend.order.model.Order;
+import io.github.ynadyana.inventory_backend.order.model.OrderStatus;
+import io.github.ynadyana.inventory_backend.order.repository.OrderItemRepository;
+import io.github.ynadyana.inventory_backend.order.repository.OrderRepository;
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import io.github.ynadyana.inventory_backend.product.repository.ProductVariantRepository;
+import io.github.ynadyana.inventory_backend.product.service.CatalogCache;
+import io.github.ynadyana.inventory_backend.product.service.LowStockIndex;
+import io.github.ynadyana.inventory_backend.product.service.StockService;
+import io.github.ynadyana.inventory_backend.product.service.VariantIndex;
+import io.github.ynadyana.inventory_backend.user.AppUser;
+import io.github.ynadyana.inventory_backend.user.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// OrderService.getOrders for a page holding one order with `items` lines over 50 distinct products,
+// alone and followed by JSON serialization with Boot's ObjectMapper settings. The repositories are
+// stubs answering from memory, so only the mapping of rows to responses is measured.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderMappingBenchmark {
+
+    private static final AppUser STAFF = AppUser.builder().id(1L).email("staff@example.com").role(Role.STAFF).build();
+    private static final OrderFilter ALL = new OrderFilter(null, null, null, null);
+    private static final InvocationHandler UNUSED = (proxy, method, args) -> {
+        throw new UnsupportedOperationException(method.getName());
+    };
+
+    @Param({"10", "1000"})
+    private int items;
+
+    private OrderService orderService;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        AppUser customer = AppUser.builder().id(42L).email("bench@example.com").username("bench").role(Role.CUSTOMER).build();
+        Order order = Order.builder()
+                .id(1L)
+                .user(customer)
+                .totalAmount(BigDecimal.ZERO)
+                .status(OrderStatus.PENDING)
+                .orderDate(LocalDateTime.of(2026, 1, 1, 12, 0))
+                .shippingMethod("Express")
+                .shippingAddress("1 Benchmark Street, Test City")
+                .build();
+
+        Random random = new Random(42);
+        List<OrderItemRow> rows = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            long productId = random.nextInt(50);
+            rows.add(new OrderItemRow(order.getId(), productId, "Product " + productId,
+                    "Midnight - " + (128 << random.nextInt(3)) + "GB", 1 + random.nextInt(3),
+                    BigDecimal.valueOf(100 + random.nextInt(2000), 2)));
+        }
+
+        OrderRepository orders = stub(OrderRepository.class, (proxy, method, args) -> {
+            if (method.getName().equals("findBy")) return List.of(order);
+            throw new UnsupportedOperationException(method.getName());
+        });
+        OrderItemRepository orderItems = stub(OrderItemRepository.class, (proxy, method, args) -> {
+            if (method.getName().equals("findRowsByOrderIds")) return rows;
+            throw new UnsupportedOperationException(method.getName());
+        });
+        ProductRepository products = stub(ProductRepository.class, UNUSED);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        objectMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.FAIL_ON_EMPTY_BEANS).build();
+
+        orderService = new OrderService(
+                orders,
+                orderItems,
+                products,
+                new StockService(stub(ProductVariantRepository.class, UNUSED), stub(ObjectProvider.class, UNUSED),
+                        new LowStockIndex(products, 5)),
+                new CatalogCache(meterRegistry, false, false, 0, 60),
+                new VariantIndex(),
+                new OrderRollupService(stub(DailyOrderRollupRepository.class, UNUSED), orders,
+                        stub(PlatformTransactionManager.class, UNUSED)),
+                objectMapper,
+                stub(EntityManager.class, UNUSED),
+                new CheckoutMetrics(meterRegistry));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<?> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(OrderMappingBenchmark.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @Benchmark
+    public OrderPage map() {
+        return orderService.getOrders(STAFF, ALL, null, null);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orderService.getOrders(STAFF, ALL, null, null).items());
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.ynadyana.inventory_backend.product.dto.CatalogPage;
+import io.github.ynadyana.inventory_backend.product.dto.ProductSummary;
+import io.github.ynadyana.inventory_backend.product.model.ImageRenditions;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serializing one catalog page with Boot's ObjectMapper settings: the entity Page<Product> the list
+// endpoint used to return (variants and album images included) against the CatalogPage of
+// ProductSummary rows it returns now. Same data as ProductListPayloadTest: 3 variants, 4 album images.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogJsonBenchmark {
+
+    private static final int VARIANTS = 3;
+    private static final int ALBUM_IMAGES = 4;
+
+    @Param({"12", "48"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<Product> entityPage;
+    private CatalogPage summaryPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.FAIL_ON_EMPTY_BEANS).build();
+
+        List<Product> products = new ArrayList<>();
+        List<ProductSummary> summaries = new ArrayList<>();
+        for (long p = 0; p < pageSize; p++) {
+            Product product = Product.builder()
+                    .id(p).sku("SKU-" + p).name("Product " + p).brand("Brand").category("Category")
+                    .description("A reasonably long marketing description for product " + p)
+                    .price(new BigDecimal("100")).imageUrl("uploads/product-" + p + ".jpg")
+                    .imageRenditions(renditions("product-" + p))
+                    .active(true).createdAt(LocalDateTime.of(2026, 1, 1, 0, 0)).updatedAt(LocalDateTime.of(2026, 1, 2, 0, 0))
+                    .build();
+            for (int v = 0; v < VARIANTS; v++) {
+                ProductVariant variant = new ProductVariant();
+                variant.setId(p * VARIANTS + v);
+                variant.setColorName("Color " + v);
+                variant.setColorHex("#00000" + v);
+                variant.setStorage(128 * (v + 1) + "GB");
+                variant.setSku("SKU-" + p + "-" + v);
+                variant.setImageUrl("uploads/variant-" + p + "-" + v + ".jpg");
+                variant.setImageRenditions(renditions("variant-" + p + "-" + v));
+                variant.setPrice(v == 0 ? null : new BigDecimal(100 + 50 * v));
+                variant.setStock(10);
+                variant.setVersion(0L);
+                for (int i = 0; i < ALBUM_IMAGES; i++) {
+                    variant.getAlbumImages().add("uploads/album-" + p + "-" + v + "-" + i + ".jpg");
+                }
+                variant.setProduct(product);
+                product.getVariants().add(variant);
+            }
+            products.add(product);
+
+            ImageRenditions r = product.getImageRenditions();
+            summaries.add(new ProductSummary(product.getId(), product.getSku(), product.getName(), product.getDescription(),
+                    product.getCategory(), product.getBrand(), product.getPrice(), new BigDecimal("100"), new BigDecimal("200"),
+                    product.getImageUrl(), r.getThumbnailUrl(), r.getCardUrl(), (long) VARIANTS * 10, true));
+        }
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        entityPage = new PageImpl<>(products, pageable, 1000);
+        summaryPage = CatalogPage.of(new PageImpl<>(summaries, pageable, 1000), null);
+    }
+
+    @Benchmark
+    public byte[] entityPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entityPage);
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+
+    private static ImageRenditions renditions(String base) {
+        return new ImageRenditions("uploads/renditions/" + base + "-thumb.jpg", "uploads/renditions/" + base + "-card.jpg",
+                "uploads/renditions/" + base + "-detail.jpg");
+    }
+}
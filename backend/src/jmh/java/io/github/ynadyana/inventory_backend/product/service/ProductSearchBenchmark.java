@@ -0,0 +1,115 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One page (10 results + total count) per search, at 100k products:
+// the in-memory index against the old "LOWER(name) LIKE '%x%'" query on an in-memory H2 table.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSearchBenchmark {
+
+    private static final String[] BRANDS = {"Apple", "Samsung", "Sony", "Lenovo", "Asus", "Dell", "Xiaomi", "Logitech", "Bose", "Nvidia"};
+    private static final String[] CATEGORIES = {"Phones", "Laptops", "Audio", "Monitors", "Accessories", "Gaming", "Tablets"};
+    private static final String[] NOUNS = {"iPhone", "Galaxy", "Headphones", "Keyboard", "Mouse", "Monitor", "Laptop", "Tablet", "Speaker", "Charger"};
+    private static final String[] WORDS = {"wireless", "pro", "ultra", "max", "mini", "portable", "gaming", "noise", "cancelling", "fast", "premium", "slim"};
+
+    @Param({"100000"})
+    private int products;
+
+    @Param({"iph", "samsung galaxy", "headphnes"})
+    private String query;
+
+    private ProductSearchIndex index;
+    private Connection connection;
+    private PreparedStatement likePage;
+    private PreparedStatement likeCount;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        index = new ProductSearchIndex(null, true);
+        connection = DriverManager.getConnection("jdbc:h2:mem:search-bench;DB_CLOSE_DELAY=-1");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(255), brand VARCHAR(255), " +
+                    "category VARCHAR(255), description VARCHAR(1000), active BOOLEAN)");
+        }
+
+        Random random = new Random(42);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO products VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= products; id++) {
+                String brand = BRANDS[random.nextInt(BRANDS.length)];
+                String name = brand + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + (100 + random.nextInt(900));
+                String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+                List<String> words = new ArrayList<>();
+                for (int w = 0; w < 12; w++) words.add(WORDS[random.nextInt(WORDS.length)]);
+                String description = String.join(" ", words);
+                boolean active = random.nextInt(10) > 0;
+
+                index.put(new ProductSearchIndex.Document(id, name, brand, category, description, active));
+                insert.setLong(1, id);
+                insert.setString(2, name);
+                insert.setString(3, brand);
+                insert.setString(4, category);
+                insert.setString(5, description);
+                insert.setBoolean(6, active);
+                insert.addBatch();
+                if (id % 1000 == 0) insert.executeBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+
+        likePage = connection.prepareStatement(
+                "SELECT id FROM products WHERE LOWER(name) LIKE ? AND active = TRUE ORDER BY id DESC LIMIT 10");
+        likeCount = connection.prepareStatement(
+                "SELECT COUNT(*) FROM products WHERE LOWER(name) LIKE ? AND active = TRUE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public ProductSearchIndex.Hits invertedIndex() {
+        return index.search(query, true, 10);
+    }
+
+    @Benchmark
+    public long sqlLike() throws SQLException {
+        String pattern = "%" + query.toLowerCase(Locale.ROOT) + "%";
+        long checksum = 0;
+        likePage.setString(1, pattern);
+        try (ResultSet rs = likePage.executeQuery()) {
+            while (rs.next()) checksum += rs.getLong(1);
+        }
+        likeCount.setString(1, pattern);
+        try (ResultSet rs = likeCount.executeQuery()) {
+            rs.next();
+            checksum += rs.getLong(1);
+        }
+        return checksum;
+    }
+}
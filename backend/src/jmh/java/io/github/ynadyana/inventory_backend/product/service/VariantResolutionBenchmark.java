@@ -0,0 +1,118 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Resolving a 20-line cart to variant ids by display name ("Midnight - 512GB"), as placeOrder does,
+// for products with `variants` color x storage combinations:
+// - "indexed": VariantIndex with its per-product keys already built (the steady state)
+// - "indexedCold": the same right after the products were edited, so every key map is rebuilt
+// - "linearScan": what placeOrder did before VariantIndex, a split on " - " and a case-insensitive scan
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VariantResolutionBenchmark {
+
+    private static final String[] COLORS = {"Midnight", "Starlight", "Blue", "Purple", "Red", "Graphite", "Gold", "Silver"};
+    private static final String[] STORAGE = {"64GB", "128GB", "256GB", "512GB", "1TB"};
+    private static final int CART_LINES = 20;
+
+    @Param({"5", "40"})
+    private int variants;
+
+    private VariantIndex index;
+    private Product[] cartProducts;
+    private String[] cartNames;
+
+    @Setup
+    public void setUp() {
+        index = new VariantIndex();
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>();
+        long variantId = 0;
+        for (long p = 0; p < 100; p++) {
+            Product product = Product.builder().id(p).sku("SKU-" + p).name("Product " + p).build();
+            for (int v = 0; v < variants; v++) {
+                ProductVariant variant = new ProductVariant();
+                variant.setId(variantId++);
+                variant.setColorName(COLORS[v / STORAGE.length % COLORS.length]);
+                variant.setStorage(STORAGE[v % STORAGE.length]);
+                variant.setSku(product.getSku() + "-" + v);
+                variant.setProduct(product);
+                product.getVariants().add(variant);
+            }
+            products.add(product);
+        }
+
+        cartProducts = new Product[CART_LINES];
+        cartNames = new String[CART_LINES];
+        for (int i = 0; i < CART_LINES; i++) {
+            Product product = products.get(random.nextInt(products.size()));
+            ProductVariant variant = product.getVariants().get(random.nextInt(variants));
+            cartProducts[i] = product;
+            cartNames[i] = variant.getColorName() + " - " + variant.getStorage();
+        }
+        for (int i = 0; i < CART_LINES; i++) {
+            index.resolve(cartProducts[i], index.stamp(), null, null, cartNames[i]);
+        }
+    }
+
+    @Benchmark
+    public void indexed(Blackhole bh) {
+        // Read once per cart, before the (here already loaded) products, as placeOrder does
+        long stamp = index.stamp();
+        for (int i = 0; i < CART_LINES; i++) {
+            bh.consume(index.resolve(cartProducts[i], stamp, null, null, cartNames[i]));
+        }
+    }
+
+    @Benchmark
+    public void indexedCold(Blackhole bh) {
+        for (int i = 0; i < CART_LINES; i++) {
+            index.invalidate(cartProducts[i].getId());
+        }
+        indexed(bh);
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole bh) {
+        for (int i = 0; i < CART_LINES; i++) {
+            bh.consume(scan(cartProducts[i], cartNames[i]));
+        }
+    }
+
+    private static ProductVariant scan(Product product, String fullVariantString) {
+        String targetColor = "Standard";
+        String targetStorage = null;
+        if (fullVariantString != null && fullVariantString.contains(" - ")) {
+            String[] parts = fullVariantString.split(" - ");
+            targetColor = parts[0].trim();
+            if (parts.length > 1) {
+                targetStorage = parts[1].trim();
+            }
+        } else if (fullVariantString != null && !fullVariantString.trim().isEmpty()) {
+            targetColor = fullVariantString.trim();
+        }
+        String finalColor = targetColor;
+        String finalStorage = targetStorage;
+        return product.getVariants().stream()
+                .filter(v -> v.getColorName() != null && v.getColorName().equalsIgnoreCase(finalColor)
+                        && (finalStorage == null || v.getStorage() != null && v.getStorage().equalsIgnoreCase(finalStorage)))
+                .findFirst()
+                .orElseThrow();
+    }
+}
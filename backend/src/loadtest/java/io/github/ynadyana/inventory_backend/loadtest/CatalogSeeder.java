@@ -0,0 +1,129 @@
+package io.github.ynadyana.inventory_backend.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the empty schema with a generated catalog and user base over plain JDBC batches, once the
+ * context is up but before ApplicationReadyEvent, so the search and low-stock indexes build from
+ * it exactly as they would from a production database.
+ *
+ * Ids are assigned here rather than by the database so {@link Workload} can derive them:
+ * product p (1..products) owns variants (p - 1) * variants + 1 .. p * variants, customers are
+ * users 1..users and staff follow them. Generation is driven by the seed, so two runs with the
+ * same options see the same data.
+ */
+@Slf4j
+class CatalogSeeder implements ApplicationListener<ApplicationStartedEvent> {
+
+    static final String PASSWORD = "loadtest";
+
+    static final String[] BRANDS = {"Apple", "Samsung", "Sony", "Lenovo", "Asus", "Dell", "Xiaomi", "Logitech", "Bose", "Nvidia"};
+    static final String[] CATEGORIES = {"Phones", "Laptops", "Audio", "Monitors", "Accessories", "Gaming", "Tablets"};
+    static final String[] NOUNS = {"iPhone", "Galaxy", "Headphones", "Keyboard", "Mouse", "Monitor", "Laptop", "Tablet", "Speaker", "Charger"};
+    static final String[] WORDS = {"wireless", "pro", "ultra", "max", "mini", "portable", "gaming", "noise", "cancelling", "fast", "premium", "slim"};
+    static final String[] COLORS = {"Midnight", "Starlight", "Blue", "Purple", "Red", "Graphite", "Gold", "Silver"};
+    static final String[] STORAGE = {"64GB", "128GB", "256GB", "512GB", "1TB"};
+
+    private static final int BATCH = 1000;
+
+    private final LoadTestOptions options;
+
+    CatalogSeeder(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    // Every 20th product is deactivated: hidden from the catalog, still in the admin views
+    static boolean isActive(long productId) {
+        return productId % 20 != 0;
+    }
+
+    // Every 100th variant is nearly sold out, so the low-stock views have rows; checkouts skip them
+    static boolean isLowStock(long variantId) {
+        return variantId % 100 == 0;
+    }
+
+    static String variantName(int index) {
+        return COLORS[index / STORAGE.length % COLORS.length] + " - " + STORAGE[index % STORAGE.length];
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationStartedEvent event) {
+        JdbcTemplate jdbc = event.getApplicationContext().getBean(JdbcTemplate.class);
+        String passwordHash = event.getApplicationContext().getBean(PasswordEncoder.class).encode(PASSWORD);
+        long start = System.nanoTime();
+        seedProducts(jdbc);
+        seedUsers(jdbc, passwordHash);
+        log.info("Seeded {} products x {} variants and {} + {} users in {} ms", options.products(), options.variants(),
+                options.users(), options.staff(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void seedProducts(JdbcTemplate jdbc) {
+        Random random = new Random(options.seed());
+        Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+        List<Object[]> products = new ArrayList<>(BATCH);
+        List<Object[]> variants = new ArrayList<>(BATCH * options.variants());
+        long variantId = 0;
+        for (long id = 1; id <= options.products(); id++) {
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+            String name = brand + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + (100 + random.nextInt(900));
+            StringBuilder description = new StringBuilder();
+            for (int w = 0; w < 12; w++) {
+                description.append(w == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            BigDecimal price = BigDecimal.valueOf(1000 + random.nextInt(200_000), 2);
+            products.add(new Object[]{id, "LT-" + id, name, description.toString(), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    brand, price, "uploads/lt-" + id + ".jpg", isActive(id), created, created});
+
+            for (int v = 0; v < options.variants(); v++) {
+                variantId++;
+                String[] label = variantName(v).split(" - ");
+                variants.add(new Object[]{variantId, id, label[0], "#" + Integer.toHexString(0x100000 + random.nextInt(0xEFFFFF)),
+                        label[1], "LT-" + id + "-" + v, v == 0 ? null : price.add(BigDecimal.valueOf(50L * v)),
+                        isLowStock(variantId) ? random.nextInt(4) : options.stock(), 0L});
+            }
+
+            if (products.size() == BATCH) {
+                flushProducts(jdbc, products, variants);
+            }
+        }
+        flushProducts(jdbc, products, variants);
+        // Later inserts through the API (admin creates) continue after the seeded ids
+        jdbc.execute("ALTER TABLE products ALTER COLUMN id RESTART WITH " + (options.products() + 1));
+        jdbc.execute("ALTER TABLE product_variant ALTER COLUMN id RESTART WITH " + (variantId + 1));
+    }
+
+    private static void flushProducts(JdbcTemplate jdbc, List<Object[]> products, List<Object[]> variants) {
+        jdbc.batchUpdate("INSERT INTO products (id, sku, name, description, category, brand, price, image_url, active, " +
+                "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", products);
+        jdbc.batchUpdate("INSERT INTO product_variant (id, product_id, color_name, color_value, storage, sku, price, stock, " +
+                "version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", variants);
+        products.clear();
+        variants.clear();
+    }
+
+    private void seedUsers(JdbcTemplate jdbc, String passwordHash) {
+        List<Object[]> users = new ArrayList<>(BATCH);
+        int total = options.users() + options.staff();
+        for (long id = 1; id <= total; id++) {
+            boolean staff = id > options.users();
+            String username = (staff ? "staff" : "customer") + id;
+            users.add(new Object[]{id, username + "@loadtest.local", passwordHash, username, staff ? "STAFF" : "CUSTOMER"});
+            if (users.size() == BATCH || id == total) {
+                jdbc.batchUpdate("INSERT INTO users (id, email, password, username, role) VALUES (?, ?, ?, ?, ?)", users);
+                users.clear();
+            }
+        }
+        jdbc.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (total + 1));
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.ynadyana.inventory_backend.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (HdrHistogram, 3 significant digits) and error counts. 2xx and
+ * 304 responses go into the histogram; anything else, including timeouts and connection errors
+ * (status -1), is counted by status instead. reset() discards everything recorded so far and
+ * ends the warmup.
+ */
+final class LatencyReport {
+
+    private static final class Endpoint {
+        final Recorder recorder = new Recorder(3);
+        final ConcurrentMap<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+    }
+
+    private record Row(String endpoint, Histogram histogram, Map<Integer, Long> errors) {
+        long requests() {
+            return histogram.getTotalCount() + errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    void record(String endpoint, int status, long latencyNanos) {
+        Endpoint e = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        if (status >= 200 && status < 300 || status == 304) {
+            e.recorder.recordValue(latencyNanos);
+        } else {
+            e.errors.computeIfAbsent(status, k -> new LongAdder()).increment();
+        }
+    }
+
+    // Open loop: an arrival that found max-in-flight requests outstanding and was never sent
+    void dropped() {
+        dropped.increment();
+    }
+
+    void reset() {
+        for (Endpoint e : endpoints.values()) {
+            e.recorder.reset();
+            e.errors.clear();
+        }
+        dropped.reset();
+    }
+
+    private List<Row> snapshot() {
+        List<Row> rows = new ArrayList<>();
+        new TreeMap<>(endpoints).forEach((name, e) -> {
+            Map<Integer, Long> errors = new TreeMap<>();
+            e.errors.forEach((status, count) -> errors.put(status, count.sum()));
+            rows.add(new Row(name, e.recorder.getIntervalHistogram(), errors));
+        });
+        return rows;
+    }
+
+    /** Prints the table and writes the same rows as CSV; call once, at the end of the run. */
+    void write(PrintStream out, Path csv, Duration elapsed) throws IOException {
+        List<Row> rows = snapshot();
+        double seconds = elapsed.toNanos() / 1e9;
+        Histogram all = new Histogram(3);
+        long requests = 0;
+        long errors = 0;
+
+        List<String> lines = new ArrayList<>();
+        lines.add("endpoint,requests,errors,throughput_rps,p50_ms,p99_ms,p999_ms,max_ms");
+        out.printf(Locale.ROOT, "%n%-32s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p99.9 ms", "Max ms");
+        for (Row row : rows) {
+            Histogram h = row.histogram();
+            long rowErrors = row.requests() - h.getTotalCount();
+            out.printf(Locale.ROOT, "%-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", row.endpoint(), row.requests(), rowErrors,
+                    row.requests() / seconds, ms(h, 50), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1e6);
+            lines.add(String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f", row.endpoint(), row.requests(), rowErrors,
+                    row.requests() / seconds, ms(h, 50), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1e6));
+            all.add(h);
+            requests += row.requests();
+            errors += rowErrors;
+        }
+        out.printf(Locale.ROOT, "%-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", "TOTAL", requests, errors,
+                requests / seconds, ms(all, 50), ms(all, 99), ms(all, 99.9), all.getMaxValue() / 1e6);
+        lines.add(String.format(Locale.ROOT, "TOTAL,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f", requests, errors,
+                requests / seconds, ms(all, 50), ms(all, 99), ms(all, 99.9), all.getMaxValue() / 1e6));
+
+        for (Row row : rows) {
+            if (!row.errors().isEmpty()) {
+                out.println("  " + row.endpoint() + " errors by status: " + row.errors());
+            }
+        }
+        if (dropped.sum() > 0) {
+            out.println("  Dropped arrivals (max-in-flight reached): " + dropped.sum());
+        }
+
+        if (csv.getParent() != null) {
+            Files.createDirectories(csv.getParent());
+        }
+        Files.write(csv, lines);
+        out.println("Report written to " + csv);
+    }
+
+    private static double ms(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.ynadyana.inventory_backend.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@link Workload} against the server until stop():
+ *
+ * - closed loop: concurrency threads, each waiting for its response (plus think-time) before the
+ *   next request. Throughput follows the server; latency is measured from the actual send.
+ * - open loop: one dispatcher starts requests at Poisson-distributed arrival times averaging rate
+ *   per second, asynchronously, whether or not earlier ones have answered. Latency is measured
+ *   from the scheduled arrival, so time spent queued behind a slow server is counted rather than
+ *   hidden (coordinated omission).
+ *
+ * Each thread draws from its own Random seeded from --seed, so the request sequence repeats.
+ */
+final class LoadGenerator {
+
+    private final HttpClient client;
+    private final Workload workload;
+    private final LatencyReport report;
+    private final LoadTestOptions options;
+    private final List<Thread> threads = new ArrayList<>();
+    private final Semaphore inFlight;
+    private volatile boolean running;
+
+    LoadGenerator(HttpClient client, Workload workload, LatencyReport report, LoadTestOptions options) {
+        this.client = client;
+        this.workload = workload;
+        this.report = report;
+        this.options = options;
+        this.inFlight = new Semaphore(options.maxInFlight());
+    }
+
+    void start() {
+        running = true;
+        if (options.openLoop()) {
+            threads.add(new Thread(this::dispatch, "load-dispatcher"));
+        } else {
+            for (int i = 0; i < options.concurrency(); i++) {
+                Random random = new Random(options.seed() + i);
+                threads.add(new Thread(() -> loop(random), "load-user-" + i));
+            }
+        }
+        threads.forEach(Thread::start);
+    }
+
+    /** Stops generating and waits for the requests already sent to finish. */
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (options.openLoop() && !inFlight.tryAcquire(options.maxInFlight(), 60, TimeUnit.SECONDS)) {
+            System.err.println("Requests still outstanding after 60s; their latencies are missing from the report");
+        }
+    }
+
+    private void loop(Random random) {
+        long thinkNanos = options.thinkTime().toNanos();
+        while (running) {
+            Workload.Call call = workload.next(random);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(call.request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                status = -1;
+            }
+            report.record(call.endpoint(), status, System.nanoTime() - start);
+            if (thinkNanos > 0) {
+                LockSupport.parkNanos(thinkNanos);
+            }
+        }
+    }
+
+    private void dispatch() {
+        Random random = new Random(options.seed());
+        double meanIntervalNanos = Duration.ofSeconds(1).toNanos() / options.rate();
+        long next = System.nanoTime();
+        while (running) {
+            next += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            long wait;
+            while ((wait = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Workload.Call call = workload.next(random);
+            if (!inFlight.tryAcquire()) {
+                report.dropped();
+                continue;
+            }
+            long scheduled = next;
+            client.sendAsync(call.request(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        report.record(call.endpoint(), error == null ? response.statusCode() : -1, System.nanoTime() - scheduled);
+                        inFlight.release();
+                    });
+        }
+    }
+}
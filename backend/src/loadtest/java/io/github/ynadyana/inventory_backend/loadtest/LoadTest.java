@@ -0,0 +1,94 @@
+package io.github.ynadyana.inventory_backend.loadtest;
+
+import io.github.ynadyana.inventory_backend.InventoryBackendApplication;
+import io.github.ynadyana.inventory_backend.security.JwtService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Self-contained load test: boots the application on an in-memory H2 database in PostgreSQL
+ * mode (no docker-compose needed), seeds it with {@link CatalogSeeder}, drives the
+ * {@link Workload} mix over HTTP with a {@link LoadGenerator} for warmup + duration, and prints
+ * throughput and p50/p99/p99.9 latency per endpoint (also written as CSV).
+ *
+ *   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--products=100000 --variants=5 --mode=open --rate=500"
+ *
+ * The generator shares the JVM and CPUs with the server, so compare runs made on the same machine
+ * with the same options (and --seed), not absolute numbers across machines.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        // Devtools is on the classpath; its restarter would boot the app twice
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Path uploads = Files.createTempDirectory("loadtest-uploads");
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("spring.main.banner-mode", "off");
+        // Devtools' in-memory database shutdown hook fails on close after Hikari has shut down
+        properties.put("spring.autoconfigure.exclude", "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration");
+        properties.put("server.port", "0");
+        properties.put("file.upload-dir", uploads.toString());
+        properties.put("app.images.renditions.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.io.github.ynadyana.inventory_backend.loadtest", "INFO");
+        properties.putAll(options.appProperties());
+        // As command-line arguments, so they take precedence over application.yaml
+        List<String> appArgs = new ArrayList<>();
+        properties.forEach((name, value) -> appArgs.add("--" + name + "=" + value));
+
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(InventoryBackendApplication.class)
+                .listeners(new CatalogSeeder(options))
+                .run(appArgs.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            Workload workload = new Workload(URI.create("http://localhost:" + port), options, app.getBean(JwtService.class));
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            LatencyReport report = new LatencyReport();
+            LoadGenerator generator = new LoadGenerator(client, workload, report, options);
+
+            System.out.printf("Catalog: %d products x %d variants, %d customers, %d staff%n",
+                    options.products(), options.variants(), options.users(), options.staff());
+            System.out.printf("Load: %s, mix %s, warmup %ds, measured %ds%n",
+                    options.openLoop()
+                            ? "open loop at " + options.rate() + " req/s (max " + options.maxInFlight() + " in flight)"
+                            : "closed loop with " + options.concurrency() + " users, think time " + options.thinkTime().toMillis() + "ms",
+                    options.mix(), options.warmup().toSeconds(), options.duration().toSeconds());
+
+            generator.start();
+            Thread.sleep(options.warmup().toMillis());
+            report.reset();
+            long measuredFrom = System.nanoTime();
+            Thread.sleep(options.duration().toMillis());
+            Duration measured = Duration.ofNanos(System.nanoTime() - measuredFrom);
+            generator.stop();
+            report.write(System.out, options.report(), measured);
+        } finally {
+            FileSystemUtils.deleteRecursively(uploads);
+        }
+    }
+}
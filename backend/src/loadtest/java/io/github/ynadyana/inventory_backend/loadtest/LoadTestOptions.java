@@ -0,0 +1,113 @@
+package io.github.ynadyana.inventory_backend.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line options of {@link LoadTest}, all written as --name=value. Arguments under
+ * --spring., --server., --app., --management. or --logging. are handed to the application as properties,
+ * e.g. --spring.datasource.hikari.maximum-pool-size=20 or --app.catalog-cache.list.enabled=false.
+ *
+ * @param mode        "closed": concurrency users, each sending its next request when the last one answered;
+ *                    "open": requests start at rate per second whatever the response times
+ * @param maxInFlight open mode only: arrivals beyond this many outstanding requests are dropped and counted
+ * @param mix         relative weights of the browse, search, checkout and admin workloads
+ */
+record LoadTestOptions(
+        int products,
+        int variants,
+        int users,
+        int staff,
+        int stock,
+        String mode,
+        int concurrency,
+        double rate,
+        int maxInFlight,
+        Duration warmup,
+        Duration duration,
+        Duration thinkTime,
+        Map<String, Integer> mix,
+        long seed,
+        Path report,
+        Map<String, Object> appProperties
+) {
+
+    private static final Set<String> OPTIONS = Set.of("products", "variants", "users", "staff", "stock", "mode",
+            "concurrency", "rate", "max-in-flight", "warmup", "duration", "think-time", "mix", "seed", "report");
+    private static final String[] APP_PREFIXES = {"spring.", "server.", "app.", "management.", "logging."};
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        Map<String, Object> appProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (isAppProperty(name)) {
+                appProperties.put(name, value);
+            } else {
+                values.put(name, value);
+            }
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("products", "100000")),
+                Integer.parseInt(values.getOrDefault("variants", "5")),
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                Integer.parseInt(values.getOrDefault("staff", "10")),
+                Integer.parseInt(values.getOrDefault("stock", "1000000")),
+                values.getOrDefault("mode", "closed"),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "512")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "15s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                DurationStyle.detectAndParse(values.getOrDefault("think-time", "0ms")),
+                parseMix(values.getOrDefault("mix", "browse:60,search:20,checkout:15,admin:5")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("report", "target/loadtest-report.csv")),
+                appProperties);
+        values.keySet().removeAll(OPTIONS);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (!options.mode.equals("closed") && !options.mode.equals("open")) {
+            throw new IllegalArgumentException("--mode must be closed or open");
+        }
+        return options;
+    }
+
+    boolean openLoop() {
+        return mode.equals("open");
+    }
+
+    private static boolean isAppProperty(String name) {
+        for (String prefix : APP_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // "browse:60,search:20" -> {browse=60, search=20}
+    private static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] kv = entry.trim().split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected workload:weight in --mix but got: " + entry);
+            }
+            mix.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.ynadyana.inventory_backend.loadtest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Runs {@link LoadTest} twice with the same arguments, first on platform threads and then with
+ * spring.threads.virtual.enabled=true, each in a fresh JVM (same heap flags as this one), and
+ * prints the two reports side by side.
+ *
+ *   mvn -Ploadtest test-compile exec:exec -Dloadtest.main=io.github.ynadyana.inventory_backend.loadtest.ThreadingComparison \
+ *       -Dloadtest.args="--mode=closed --concurrency=400 --think-time=20ms"
+ *
+ * The modes only differ once more requests are in flight than Tomcat has threads (200 by
+ * default), so use a concurrency or open-loop rate above that.
+ */
+public final class ThreadingComparison {
+
+    private static final String[] MODES = {"platform", "virtual"};
+
+    private ThreadingComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Map<String, String[]>> reports = new LinkedHashMap<>();
+        for (String mode : MODES) {
+            Path report = Path.of("target", "loadtest-" + mode + ".csv");
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+            command.add("-classpath");
+            command.add(System.getProperty("java.class.path"));
+            command.add(LoadTest.class.getName());
+            for (String arg : args) {
+                if (!arg.startsWith("--report=") && !arg.startsWith("--spring.threads.virtual.enabled=")) {
+                    command.add(arg);
+                }
+            }
+            command.add("--spring.threads.virtual.enabled=" + mode.equals("virtual"));
+            command.add("--report=" + report);
+
+            System.out.println("=== " + mode + " threads ===");
+            int exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (exit != 0) {
+                throw new IllegalStateException(mode + " run failed with exit code " + exit);
+            }
+            reports.put(mode, read(report));
+        }
+        print(reports.get("platform"), reports.get("virtual"));
+    }
+
+    // endpoint -> columns of LatencyReport's CSV
+    private static Map<String, String[]> read(Path csv) throws IOException {
+        Map<String, String[]> rows = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(csv);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.split(",");
+            rows.put(columns[0], columns);
+        }
+        return rows;
+    }
+
+    private static void print(Map<String, String[]> platform, Map<String, String[]> virtual) {
+        System.out.printf(Locale.ROOT, "%n%-32s %21s %21s %21s%n", "", "Req/s", "p99 ms", "Errors");
+        System.out.printf(Locale.ROOT, "%-32s %10s %10s %10s %10s %10s %10s%n",
+                "Endpoint", "platform", "virtual", "platform", "virtual", "platform", "virtual");
+        TreeSet<String> endpoints = new TreeSet<>(platform.keySet());
+        endpoints.addAll(virtual.keySet());
+        endpoints.remove("TOTAL");
+        for (String endpoint : endpoints) {
+            printRow(endpoint, platform.get(endpoint), virtual.get(endpoint));
+        }
+        printRow("TOTAL", platform.get("TOTAL"), virtual.get("TOTAL"));
+    }
+
+    // Columns: endpoint, requests, errors, throughput_rps, p50_ms, p99_ms, p999_ms, max_ms
+    private static void printRow(String endpoint, String[] p, String[] v) {
+        System.out.printf(Locale.ROOT, "%-32s %10s %10s %10s %10s %10s %10s%n", endpoint,
+                column(p, 3), column(v, 3), column(p, 5), column(v, 5), column(p, 2), column(v, 2));
+    }
+
+    private static String column(String[] row, int index) {
+        return row != null ? row[index] : "-";
+    }
+}
@@ -0,0 +1,186 @@
+package io.github.ynadyana.inventory_backend.loadtest;
+
+import io.github.ynadyana.inventory_backend.security.JwtService;
+import io.github.ynadyana.inventory_backend.user.AppUser;
+import io.github.ynadyana.inventory_backend.user.Role;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * The request mix. Each call picks one of the four workloads by its --mix weight, then one of
+ * that workload's requests:
+ *
+ * - browse:   catalog pages (some filtered or sorted), product detail, facets, categories.
+ *             Detail hits are skewed: 80% go to the first 1% of products, like a storefront's bestsellers.
+ * - search:   ?search= with brand names, prefixes, two-word queries and typos
+ * - checkout: a 1-3 line cart by variant id, placed as a random customer
+ * - admin:    low-stock list, dashboard, order list and a restock, as a random staff user
+ *
+ * Requests are labelled by endpoint (the path template, not the concrete URL) for the report.
+ */
+final class Workload {
+
+    record Call(String endpoint, HttpRequest request) {}
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI base;
+    private final LoadTestOptions options;
+    private final String[] workloads;
+    private final int[] cumulativeWeights;
+    private final String[] customerTokens;
+    private final String[] staffTokens;
+
+    Workload(URI base, LoadTestOptions options, JwtService jwtService) {
+        this.base = base;
+        this.options = options;
+
+        workloads = options.mix().keySet().toArray(String[]::new);
+        cumulativeWeights = new int[workloads.length];
+        int total = 0;
+        for (int i = 0; i < workloads.length; i++) {
+            if (!workloads[i].matches("browse|search|checkout|admin")) {
+                throw new IllegalArgumentException("Unknown workload in --mix: " + workloads[i]);
+            }
+            total += options.mix().get(workloads[i]);
+            cumulativeWeights[i] = total;
+        }
+
+        // Signed directly instead of through /api/auth/login: BCrypt would otherwise dominate startup
+        customerTokens = new String[Math.max(options.users(), 1)];
+        for (int i = 0; i < options.users(); i++) {
+            customerTokens[i] = jwtService.generateToken(user(i + 1L, "customer", Role.CUSTOMER));
+        }
+        staffTokens = new String[Math.max(options.staff(), 1)];
+        for (int i = 0; i < options.staff(); i++) {
+            long id = options.users() + i + 1L;
+            staffTokens[i] = jwtService.generateToken(user(id, "staff", Role.STAFF));
+        }
+    }
+
+    private static AppUser user(long id, String prefix, Role role) {
+        AppUser user = new AppUser();
+        user.setId(id);
+        user.setUsername(prefix + id);
+        user.setEmail(prefix + id + "@loadtest.local");
+        user.setRole(role);
+        return user;
+    }
+
+    Call next(Random random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (pick >= cumulativeWeights[i]) {
+            i++;
+        }
+        return switch (workloads[i]) {
+            case "browse" -> browse(random);
+            case "search" -> search(random);
+            case "checkout" -> checkout(random);
+            default -> admin(random);
+        };
+    }
+
+    private Call browse(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 45) {
+            // Most shoppers stay on the first page
+            int page = random.nextInt(10) < 7 ? 0 : 1 + random.nextInt(49);
+            StringBuilder query = new StringBuilder("?page=" + page + "&size=12");
+            if (random.nextInt(10) < 3) {
+                query.append("&category=").append(CatalogSeeder.CATEGORIES[random.nextInt(CatalogSeeder.CATEGORIES.length)]);
+            }
+            if (random.nextInt(10) < 2) {
+                query.append("&sort=").append(random.nextBoolean() ? "price-asc" : "price-desc");
+            }
+            return get("GET /api/products", "/api/products" + query, null);
+        }
+        if (roll < 85) {
+            return get("GET /api/products/{id}", "/api/products/" + productId(random), null);
+        }
+        if (roll < 95) {
+            return get("GET /api/products/facets", "/api/products/facets", null);
+        }
+        return get("GET /api/products/categories", "/api/products/categories", null);
+    }
+
+    private Call search(Random random) {
+        String brand = CatalogSeeder.BRANDS[random.nextInt(CatalogSeeder.BRANDS.length)];
+        String noun = CatalogSeeder.NOUNS[random.nextInt(CatalogSeeder.NOUNS.length)];
+        String query = switch (random.nextInt(4)) {
+            case 0 -> brand;
+            case 1 -> noun.substring(0, Math.min(noun.length(), 3 + random.nextInt(2))); // typing in progress
+            case 2 -> brand + " " + noun;
+            default -> {
+                int drop = 1 + random.nextInt(noun.length() - 1); // one letter missing
+                yield noun.substring(0, drop) + noun.substring(drop + 1);
+            }
+        };
+        return get("GET /api/products?search", "/api/products?size=12&search=" + query.toLowerCase(Locale.ROOT).replace(" ", "+"), null);
+    }
+
+    private Call checkout(Random random) {
+        int lines = 1 + random.nextInt(3);
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            long productId = productId(random);
+            long variantId;
+            do {
+                variantId = (productId - 1) * options.variants() + 1 + random.nextInt(options.variants());
+            } while (CatalogSeeder.isLowStock(variantId) && options.variants() > 1);
+            items.append(i == 0 ? "" : ",").append(String.format(Locale.ROOT,
+                    "{\"productId\":%d,\"variantId\":%d,\"quantity\":1,\"price\":19.99}", productId, variantId));
+        }
+        String body = String.format(Locale.ROOT,
+                "{\"items\":[%s],\"totalAmount\":%.2f,\"shippingMethod\":\"Standard\",\"shippingAddress\":\"1 Load Test Road\"}",
+                items, 19.99 * lines);
+        String token = customerTokens[random.nextInt(customerTokens.length)];
+        return new Call("POST /api/orders", request("/api/orders", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private Call admin(Random random) {
+        String token = staffTokens[random.nextInt(staffTokens.length)];
+        int roll = random.nextInt(100);
+        if (roll < 30) {
+            return get("GET /api/products/low-stock", "/api/products/low-stock?scope=variant&size=20", token);
+        }
+        if (roll < 50) {
+            return get("GET /api/admin/dashboard", "/api/admin/dashboard?days=7", token);
+        }
+        if (roll < 80) {
+            return get("GET /api/orders", "/api/orders?limit=20", token);
+        }
+        long variantId = 1 + random.nextInt(options.products() * options.variants());
+        return new Call("PUT /api/variants/{id}/stock", request("/api/variants/" + variantId + "/stock?newStock=" + options.stock(), token)
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    // An active product, 80% of the time from the first 1%
+    private long productId(Random random) {
+        int hot = Math.max(options.products() / 100, 1);
+        long id = 1 + random.nextInt(random.nextInt(10) < 8 ? hot : options.products());
+        return CatalogSeeder.isActive(id) ? id : id - 1;
+    }
+
+    private Call get(String endpoint, String pathAndQuery, String token) {
+        return new Call(endpoint, request(pathAndQuery, token).GET().build());
+    }
+
+    private HttpRequest.Builder request(String pathAndQuery, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(pathAndQuery))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
@@ -3,9 +3,11 @@ package io.github.ynadyana.inventory_backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync; // Import this
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableAsync // Ensure this is here
+@EnableScheduling // Stock ledger flush
 public class InventoryBackendApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,63 @@
+package io.github.ynadyana.inventory_backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Named executors for @Async work (enabled on InventoryBackendApplication)
+@Configuration
+@Slf4j
+public class AsyncConfig {
+
+    // Image renditions: CPU-heavy, so a small fixed pool. When the queue is full the job is
+    // dropped (clients keep using the original) rather than run on the request thread.
+    @Bean
+    public ThreadPoolTaskExecutor imageRenditionExecutor(@Value("${app.images.renditions.pool-size}") int poolSize,
+                                                         @Value("${app.images.renditions.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Image rendition queue full ({} pending); skipping", pool.getQueue().size()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // Upload writes: disk-bound, so a few threads let an album's files overlap. When saturated the
+    // request thread writes the file itself, which slows that upload down instead of failing it.
+    // With virtual threads each write gets its own; pool-size still caps how many run at once, and
+    // a request past the cap waits for a slot (cheap on a virtual thread) rather than writing itself.
+    // Renditions above stay on platform threads either way: they are CPU-bound.
+    @Bean
+    public AsyncTaskExecutor imageUploadExecutor(@Value("${app.uploads.pool-size}") int poolSize,
+                                                 @Value("${app.uploads.queue-capacity}") int queueCapacity,
+                                                 Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("upload-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(poolSize);
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
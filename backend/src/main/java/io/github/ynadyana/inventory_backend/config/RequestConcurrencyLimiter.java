@@ -0,0 +1,108 @@
+package io.github.ynadyana.inventory_backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many requests run at once. On platform threads Tomcat's pool does this; on virtual
+ * threads every request in a burst would start, pile up waiting on the Hikari pool and time out
+ * there after 30s. Requests past the cap wait in arrival order for up to queueTimeoutMs, then get
+ * a 503 with Retry-After, like BoundedPasswordEncoder does for login bursts.
+ *
+ * The 503 is written directly rather than through sendError, so the /error dispatch (and its
+ * security check) never runs for a rejected request. A request that goes async (the NDJSON order
+ * export) keeps its permit until the async work completes, not just until the handler returns.
+ */
+@Slf4j
+public class RequestConcurrencyLimiter extends OncePerRequestFilter {
+
+    private static final String BUSY = "{\"status\":503,\"error\":\"Service Unavailable\",\"message\":\"Server is busy, please retry shortly\"}";
+
+    private final Semaphore permits;
+    private final int limit;
+    private final long queueTimeoutMs;
+    private final Counter rejected;
+
+    public RequestConcurrencyLimiter(int limit, long queueTimeoutMs, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(limit, true);
+        this.limit = limit;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.rejected = Counter.builder("requests.limit.rejected").register(meterRegistry);
+        meterRegistry.gauge("requests.limit.active", permits, p -> limit - p.availablePermits());
+        meterRegistry.gauge("requests.limit.queue.depth", permits, Semaphore::getQueueLength);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.increment();
+            log.warn("Request limit reached ({} running, {} waiting); rejecting {} {}",
+                    limit, permits.getQueueLength(), request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(BUSY);
+            return;
+        }
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // The container runs onComplete after timeouts and errors too
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permits.release();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the new async cycle; onComplete only fires for the last one
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.ynadyana.inventory_backend.config;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.apache.catalina.Context;
+import org.apache.catalina.Lifecycle;
+import org.apache.catalina.WebResourceRoot;
+import org.apache.catalina.servlets.DefaultServlet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Serves /uploads/** with Tomcat's DefaultServlet instead of a Spring MVC resource handler.
+ *
+ * The upload directory is mounted into the web application's resources. Tomcat then handles
+ * Range requests, ETag and Last-Modified validation, and keeps small files in its resource
+ * cache. Files of at least app.uploads.sendfile-min-kb are written with sendfile
+ * (FileChannel.transferTo), so their bytes never pass through the JVM heap.
+ *
+ * Stored names are content hashes (see ImageStore), so responses are marked immutable for a year.
+ */
+@Configuration
+public class UploadsConfig {
+
+    static final String MOUNT = "/uploads";
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> uploadsMount(@Value("${file.upload-dir}") String uploadDir) {
+        Path dir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        return factory -> factory.addContextCustomizers(context -> mount(context, dir));
+    }
+
+    // Same hook Spring Boot uses to add META-INF/resources jars: the resource root exists by then
+    static void mount(Context context, Path dir) {
+        context.addLifecycleListener(event -> {
+            if (Lifecycle.CONFIGURE_START_EVENT.equals(event.getType())) {
+                try {
+                    Files.createDirectories(dir);
+                    context.getResources().createWebResourceSet(WebResourceRoot.ResourceSetType.PRE, MOUNT,
+                            dir.toUri().toURL(), "/");
+                } catch (MalformedURLException e) {
+                    throw new IllegalStateException(e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    @Bean
+    public ServletRegistrationBean<DefaultServlet> uploadsServlet(@Value("${app.uploads.sendfile-min-kb}") int sendfileMinKb) {
+        ServletRegistrationBean<DefaultServlet> registration = new ServletRegistrationBean<>(new DefaultServlet(), MOUNT + "/*");
+        registration.setName("uploads");
+        registration.addInitParameter("listings", "false");
+        registration.addInitParameter("sendfileSize", String.valueOf(sendfileMinKb));
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<Filter> uploadsCacheControl() {
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+            chain.doFilter(request, new NotFoundUncached(http));
+        });
+        registration.addUrlPatterns(MOUNT + "/*");
+        return registration;
+    }
+
+    // A missing file may be uploaded later under that name: never let a 404 be cached for a year
+    static final class NotFoundUncached extends HttpServletResponseWrapper {
+        NotFoundUncached(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            super.sendError(sc, msg);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.ynadyana.inventory_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Active with spring.threads.virtual.enabled=true (Spring Boot then runs Tomcat's requests,
+ * its task executors and schedulers on virtual threads; AsyncConfig does the same for uploads).
+ *
+ * Limits /api requests to the Hikari pool size x app.virtual-threads.requests-per-connection.
+ * Requests spend part of their time outside a transaction (JWT checks, catalog cache hits, JSON),
+ * so a few per connection keep the pool busy without a queue of waiters forming in Hikari.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+
+    // After the observation filter, so rejections show up in http.server.requests; before security
+    private static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    @Bean
+    public FilterRegistrationBean<RequestConcurrencyLimiter> requestConcurrencyLimiter(
+            DataSource dataSource,
+            @Value("${app.virtual-threads.requests-per-connection}") int requestsPerConnection,
+            @Value("${app.virtual-threads.queue-timeout-ms}") long queueTimeoutMs,
+            MeterRegistry meterRegistry) throws SQLException {
+        int limit = poolSize(dataSource) * requestsPerConnection;
+        log.info("Virtual threads enabled; /api requests limited to {} at once", limit);
+        FilterRegistrationBean<RequestConcurrencyLimiter> registration =
+                new FilterRegistrationBean<>(new RequestConcurrencyLimiter(limit, queueTimeoutMs, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(ORDER);
+        return registration;
+    }
+
+    private static int poolSize(DataSource dataSource) throws SQLException {
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        }
+        return 10; // Hikari's default
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.ynadyana.inventory_backend.dashboard.controller;
+
+import io.github.ynadyana.inventory_backend.dashboard.dto.DashboardResponse;
+import io.github.ynadyana.inventory_backend.dashboard.service.DashboardService;
+import io.github.ynadyana.inventory_backend.user.AppUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/dashboard")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('STAFF')")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    // GET: Totals, per-status counts and a daily revenue series from the rollups
+    @GetMapping
+    public ResponseEntity<DashboardResponse> getDashboard(
+            @AuthenticationPrincipal AppUser user,
+            @RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(dashboardService.getDashboard(user, days));
+    }
+
+    // POST: Recompute every rollup from the orders table
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildRollups() {
+        return ResponseEntity.ok(Map.of("rows", dashboardService.rebuildRollups()));
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.ynadyana.inventory_backend.dashboard.dto;
+
+import io.github.ynadyana.inventory_backend.order.dto.OrderResponse;
+import io.github.ynadyana.inventory_backend.order.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public record DashboardResponse(
+    BigDecimal totalRevenue, // Excludes CANCELLED orders
+    long totalOrders,
+    Map<OrderStatus, Long> ordersByStatus,
+    long activeProducts,
+    List<DailyPoint> daily,
+    List<OrderResponse> recentOrders
+) {
+    public record DailyPoint(
+        LocalDate date,
+        BigDecimal revenue, // Excludes CANCELLED orders
+        long orders
+    ) {}
+}
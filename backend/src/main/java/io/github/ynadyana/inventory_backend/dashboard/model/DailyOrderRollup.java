@@ -0,0 +1,39 @@
+package io.github.ynadyana.inventory_backend.dashboard.model;
+
+import io.github.ynadyana.inventory_backend.order.model.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Order count and revenue per order day and status, kept up to date by OrderRollupService
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "daily_order_rollups", uniqueConstraints =
+        @UniqueConstraint(name = "uk_daily_order_rollups_date_status", columnNames = {"rollup_date", "status"}))
+public class DailyOrderRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,64 @@
+package io.github.ynadyana.inventory_backend.dashboard.repository;
+
+import io.github.ynadyana.inventory_backend.dashboard.model.DailyOrderRollup;
+import io.github.ynadyana.inventory_backend.order.model.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyOrderRollupRepository extends JpaRepository<DailyOrderRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE DailyOrderRollup r SET r.orderCount = r.orderCount + :count, r.revenue = r.revenue + :revenue " +
+           "WHERE r.rollupDate = :date AND r.status = :status")
+    int increment(@Param("date") LocalDate date, @Param("status") OrderStatus status,
+                  @Param("count") long count, @Param("revenue") BigDecimal revenue);
+
+    List<DailyOrderRollup> findByRollupDateGreaterThanEqualOrderByRollupDate(LocalDate from);
+
+    @Query("SELECT r.status AS status, SUM(r.orderCount) AS orders, SUM(r.revenue) AS revenue " +
+           "FROM DailyOrderRollup r GROUP BY r.status")
+    List<StatusTotal> totalsByStatus();
+
+    // Locks every row in (date, status) order, the order OrderRollupService updates them in
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM DailyOrderRollup r ORDER BY r.rollupDate, r.status")
+    List<DailyOrderRollup> lockAll();
+
+    // Orders whose current status is not (yet) what the rollups count them under
+    String NOT_ROLLED_UP = "o.status IS NOT NULL AND (o.rollupStatus IS NULL OR o.rollupStatus <> o.status)";
+
+    @Query("SELECT COUNT(o) FROM Order o WHERE " + NOT_ROLLED_UP)
+    long countOrdersNotRolledUp();
+
+    // Used by the rebuild job: counts every order under its current status
+    @Modifying
+    @Query("UPDATE Order o SET o.rollupStatus = o.status WHERE " + NOT_ROLLED_UP)
+    int markOrdersRolledUp();
+
+    // Recomputes the rollups straight from the orders table (used by the rebuild job)
+    @Query("SELECT cast(o.orderDate as LocalDate) AS date, o.rollupStatus AS status, COUNT(o) AS orders, " +
+           "COALESCE(SUM(o.totalAmount), 0) AS revenue " +
+           "FROM Order o WHERE o.rollupStatus IS NOT NULL GROUP BY cast(o.orderDate as LocalDate), o.rollupStatus")
+    List<DailyTotal> aggregateOrders();
+
+    interface StatusTotal {
+        OrderStatus getStatus();
+        Long getOrders();
+        BigDecimal getRevenue();
+    }
+
+    interface DailyTotal {
+        LocalDate getDate();
+        OrderStatus getStatus();
+        Long getOrders();
+        BigDecimal getRevenue();
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.ynadyana.inventory_backend.dashboard.service;
+
+import io.github.ynadyana.inventory_backend.dashboard.dto.DashboardResponse;
+import io.github.ynadyana.inventory_backend.dashboard.model.DailyOrderRollup;
+import io.github.ynadyana.inventory_backend.dashboard.repository.DailyOrderRollupRepository;
+import io.github.ynadyana.inventory_backend.order.dto.OrderFilter;
+import io.github.ynadyana.inventory_backend.order.model.OrderStatus;
+import io.github.ynadyana.inventory_backend.order.repository.OrderRepository;
+import io.github.ynadyana.inventory_backend.order.service.OrderService;
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import io.github.ynadyana.inventory_backend.user.AppUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+
+    private static final int MAX_DAYS = 366;
+    private static final int RECENT_ORDERS = 5;
+
+    private final DailyOrderRollupRepository rollupRepository;
+    private final OrderRollupService orderRollupService;
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final OrderService orderService;
+
+    // Reads only rollup rows: cost grows with the number of days, not the number of orders
+    @Transactional(readOnly = true)
+    public DashboardResponse getDashboard(AppUser staff, int days) {
+        int window = Math.min(Math.max(days, 1), MAX_DAYS);
+
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long totalOrders = 0;
+        Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        for (var total : rollupRepository.totalsByStatus()) {
+            ordersByStatus.put(total.getStatus(), total.getOrders());
+            totalOrders += total.getOrders();
+            if (total.getStatus() != OrderStatus.CANCELLED) {
+                totalRevenue = totalRevenue.add(total.getRevenue());
+            }
+        }
+
+        // One point per day in the window, zero-filled
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(window - 1L);
+        Map<LocalDate, BigDecimal> revenueByDay = new LinkedHashMap<>();
+        Map<LocalDate, Long> ordersByDay = new LinkedHashMap<>();
+        for (LocalDate d = from; !d.isAfter(today); d = d.plusDays(1)) {
+            revenueByDay.put(d, BigDecimal.ZERO);
+            ordersByDay.put(d, 0L);
+        }
+        for (DailyOrderRollup row : rollupRepository.findByRollupDateGreaterThanEqualOrderByRollupDate(from)) {
+            if (!revenueByDay.containsKey(row.getRollupDate())) continue;
+            ordersByDay.merge(row.getRollupDate(), row.getOrderCount(), Long::sum);
+            if (row.getStatus() != OrderStatus.CANCELLED) {
+                revenueByDay.merge(row.getRollupDate(), row.getRevenue(), BigDecimal::add);
+            }
+        }
+        List<DashboardResponse.DailyPoint> daily = new ArrayList<>();
+        revenueByDay.forEach((d, revenue) -> daily.add(new DashboardResponse.DailyPoint(d, revenue, ordersByDay.get(d))));
+
+        return new DashboardResponse(
+                totalRevenue,
+                totalOrders,
+                ordersByStatus,
+                productRepository.countByActiveTrue(),
+                daily,
+                orderService.getOrders(staff, new OrderFilter(null, null, null, null), null, RECENT_ORDERS).items());
+    }
+
+    public int rebuildRollups() {
+        return orderRollupService.rebuild();
+    }
+
+    // First start after upgrading (orders exist but are not counted yet), or deltas lost in a crash.
+    // Safe while traffic starts: the rebuild and concurrent deltas agree on what each order counts as
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeRollups() {
+        if (rollupRepository.countOrdersNotRolledUp() > 0
+                || (rollupRepository.count() == 0 && orderRepository.count() > 0)) {
+            orderRollupService.rebuild();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.ynadyana.inventory_backend.dashboard.service;
+
+import io.github.ynadyana.inventory_backend.dashboard.model.DailyOrderRollup;
+import io.github.ynadyana.inventory_backend.dashboard.repository.DailyOrderRollupRepository;
+import io.github.ynadyana.inventory_backend.order.model.Order;
+import io.github.ynadyana.inventory_backend.order.model.OrderStatus;
+import io.github.ynadyana.inventory_backend.order.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps daily_order_rollups in step with the orders table.
+ *
+ * Each order records the status it is counted under (Order.rollupStatus). After the order
+ * transaction commits, a short transaction of its own locks the order row and moves its count
+ * from rollupStatus to the current status, so checkouts never queue behind the shared
+ * "today / PENDING" rollup row. Because the delta is derived from the locked row rather than
+ * from what the caller saw, deltas may run in any order, twice, or after a rebuild that already
+ * counted the order, and still add up. If one is lost (e.g. a crash between the two commits),
+ * rebuild() recomputes everything from orders.
+ */
+@Service
+@Slf4j
+public class OrderRollupService {
+
+    private final DailyOrderRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate requiresNew;
+
+    public OrderRollupService(DailyOrderRollupRepository rollupRepository, OrderRepository orderRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.orderRepository = orderRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void orderPlaced(Order order) {
+        Long orderId = order.getId();
+        afterCommit(() -> catchUp(orderId));
+    }
+
+    public void statusChanged(Order order) {
+        Long orderId = order.getId();
+        afterCommit(() -> catchUp(orderId));
+    }
+
+    // Replaces every rollup row with totals recomputed from orders, in one transaction:
+    // first every order is marked as counted under its current status (row-locking the ones that
+    // change, so their pending deltas wait and then find nothing to do), then the rollup rows are
+    // locked and re-aggregated from those marks. A delta that commits around the rebuild either
+    // already moved its order's mark, and is aggregated, or moves it afterwards, and applies on top.
+    public int rebuild() {
+        try {
+            return requiresNew.execute(status -> replaceRollups());
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            // A delta inserted a row the rebuild was about to insert; it has committed now
+            return requiresNew.execute(status -> replaceRollups());
+        }
+    }
+
+    private int replaceRollups() {
+        int marked = rollupRepository.markOrdersRolledUp();
+        rollupRepository.lockAll();
+        rollupRepository.deleteAllInBatch();
+        var totals = rollupRepository.aggregateOrders();
+        rollupRepository.saveAllAndFlush(totals.stream().map(t -> DailyOrderRollup.builder()
+                .rollupDate(t.getDate())
+                .status(t.getStatus())
+                .orderCount(t.getOrders())
+                .revenue(t.getRevenue())
+                .build()).toList());
+        log.info("Rebuilt {} daily order rollups ({} orders were not counted yet)", totals.size(), marked);
+        return totals.size();
+    }
+
+    private void catchUp(Long orderId) {
+        // Never throw: this runs after the order has already committed
+        try {
+            try {
+                requiresNew.executeWithoutResult(tx -> moveCount(orderId));
+            } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+                // Another transaction created the row first (it exists now, so the update will hit)
+                // or held a row this one needed
+                requiresNew.executeWithoutResult(tx -> moveCount(orderId));
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to update the rollups for order {}; rebuild the rollups to repair", orderId, e);
+        }
+    }
+
+    private void moveCount(Long orderId) {
+        Order order = orderRepository.findByIdForUpdate(orderId).orElse(null);
+        if (order == null || order.getRollupStatus() == order.getStatus()) {
+            return;
+        }
+        LocalDate date = order.getOrderDate().toLocalDate();
+        BigDecimal amount = amountOf(order);
+        // Same row order as DailyOrderRollupRepository.lockAll, so deltas and rebuilds never deadlock
+        Map<OrderStatus, Integer> moves = new TreeMap<>(Comparator.comparing(OrderStatus::name));
+        if (order.getRollupStatus() != null) {
+            moves.put(order.getRollupStatus(), -1);
+        }
+        if (order.getStatus() != null) {
+            moves.put(order.getStatus(), 1);
+        }
+        moves.forEach((status, count) -> upsert(date, status, count, count < 0 ? amount.negate() : amount));
+        order.setRollupStatus(order.getStatus());
+    }
+
+    private void upsert(LocalDate date, OrderStatus status, long count, BigDecimal revenue) {
+        if (rollupRepository.increment(date, status, count, revenue) == 0) {
+            rollupRepository.saveAndFlush(DailyOrderRollup.builder()
+                    .rollupDate(date)
+                    .status(status)
+                    .orderCount(count)
+                    .revenue(revenue)
+                    .build());
+        }
+    }
+
+    private static BigDecimal amountOf(Order order) {
+        return order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
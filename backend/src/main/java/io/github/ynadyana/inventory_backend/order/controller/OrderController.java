@@ -1,17 +1,23 @@
 package io.github.ynadyana.inventory_backend.order.controller;
 
+import io.github.ynadyana.inventory_backend.order.dto.OrderFilter;
+import io.github.ynadyana.inventory_backend.order.dto.OrderPage;
 import io.github.ynadyana.inventory_backend.order.dto.OrderRequest;
 import io.github.ynadyana.inventory_backend.order.dto.OrderResponse; // Import the new DTO
 import io.github.ynadyana.inventory_backend.order.model.OrderStatus;
 import io.github.ynadyana.inventory_backend.order.service.OrderService;
 import io.github.ynadyana.inventory_backend.user.AppUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 import java.util.List;
@@ -22,6 +28,8 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
 public class OrderController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final OrderService orderService;
 
     // POST: Return OrderResponse
@@ -31,11 +39,40 @@ public class OrderController {
         return ResponseEntity.ok(orderService.placeOrder(user, request));
     }
 
-    // GET: Return List<OrderResponse>
+    // GET: Return List<OrderResponse>, newest first, one keyset page at a time (?limit=N, 50 by default,
+    // at most 200). The cursor for the next page comes back in X-Next-Cursor.
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<OrderResponse>> getOrders(@AuthenticationPrincipal AppUser user) {
-        return ResponseEntity.ok(orderService.getAllOrders(user));
+    public ResponseEntity<List<OrderResponse>> getOrders(
+            @AuthenticationPrincipal AppUser user,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        OrderPage page = orderService.getOrders(user, new OrderFilter(status, userId, from, to), cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    // GET: Stream matching orders as NDJSON without loading them all into memory
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @AuthenticationPrincipal AppUser user,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        OrderFilter filter = new OrderFilter(status, userId, from, to);
+        StreamingResponseBody body = out -> orderService.exportOrders(user, filter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     // PUT: Return OrderResponse
@@ -0,0 +1,13 @@
+package io.github.ynadyana.inventory_backend.order.dto;
+
+import io.github.ynadyana.inventory_backend.order.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// Optional filters for order listing/export; null fields are ignored
+public record OrderFilter(
+        OrderStatus status,
+        Long userId,
+        LocalDateTime from,
+        LocalDateTime to
+) {}
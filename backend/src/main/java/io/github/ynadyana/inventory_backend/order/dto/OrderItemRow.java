@@ -0,0 +1,13 @@
+package io.github.ynadyana.inventory_backend.order.dto;
+
+import java.math.BigDecimal;
+
+// Flat projection of an order line plus its product name, loaded for many orders in one query
+public record OrderItemRow(
+        Long orderId,
+        Long productId,
+        String productName,
+        String variantName,
+        Integer quantity,
+        BigDecimal price
+) {}
@@ -0,0 +1,9 @@
+package io.github.ynadyana.inventory_backend.order.dto;
+
+import java.util.List;
+
+// One keyset page; nextCursor is null on the last page
+public record OrderPage(
+        List<OrderResponse> items,
+        String nextCursor
+) {}
@@ -17,5 +17,8 @@ public class OrderRequest {
         private Integer quantity;
         private BigDecimal price;
         private String variantName;
+        // Preferred over variantName: resolved with a single index lookup
+        private Long variantId;
+        private String sku;
     }
 }
\ No newline at end of file
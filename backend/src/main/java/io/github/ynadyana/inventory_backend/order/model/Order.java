@@ -13,14 +13,21 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Keyset pagination on (orderDate, id), globally and per customer / status
+        @Index(name = "idx_orders_date_id", columnList = "orderDate DESC, id DESC"),
+        @Index(name = "idx_orders_user_date_id", columnList = "user_id, orderDate DESC, id DESC"),
+        @Index(name = "idx_orders_status_date_id", columnList = "status, orderDate DESC, id DESC")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
+    // Sequence (not IDENTITY) so Hibernate can batch the inserts; see OrderIdSequences
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)  
@@ -36,6 +43,10 @@ public class Order {
     @Enumerated(EnumType.STRING) 
     private OrderStatus status;
 
+    // The status this order is counted under in daily_order_rollups; see OrderRollupService
+    @Enumerated(EnumType.STRING)
+    private OrderStatus rollupStatus;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true) 
     @JsonManagedReference
     @Builder.Default  // Prevents null list in builder
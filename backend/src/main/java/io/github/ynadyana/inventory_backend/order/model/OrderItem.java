@@ -17,8 +17,10 @@ import java.math.BigDecimal;
 @Builder
 public class OrderItem {
 
+    // Sequence (not IDENTITY) so Hibernate can batch the inserts; see OrderIdSequences
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "product_id")
@@ -0,0 +1,41 @@
+package io.github.ynadyana.inventory_backend.order.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Orders and order items used to get IDENTITY ids. Hibernate creates the new sequences
+ * starting at 1, so on an existing PostgreSQL database move them past the current max id
+ * before the first checkout. Idempotent: never moves a sequence backwards.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderIdSequences {
+
+    private final JdbcTemplate jdbcTemplate;
+    // Depend on the EntityManagerFactory so the schema update (which creates the sequences) has run
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void align() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        align("orders", "orders_seq");
+        align("order_items", "order_items_seq");
+    }
+
+    private void align(String table, String sequence) {
+        Long value = jdbcTemplate.queryForObject(
+                "SELECT setval('" + sequence + "', GREATEST((SELECT COALESCE(MAX(id), 0) FROM " + table + "), " +
+                "(SELECT last_value FROM " + sequence + ")))", Long.class);
+        log.debug("Aligned {} to {}", sequence, value);
+    }
+}
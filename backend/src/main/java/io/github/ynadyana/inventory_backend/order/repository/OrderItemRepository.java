@@ -0,0 +1,19 @@
+package io.github.ynadyana.inventory_backend.order.repository;
+
+import io.github.ynadyana.inventory_backend.order.dto.OrderItemRow;
+import io.github.ynadyana.inventory_backend.order.model.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    // Every line of the given orders with the product name, without loading Product entities
+    @Query("SELECT new io.github.ynadyana.inventory_backend.order.dto.OrderItemRow(" +
+           "i.order.id, i.productId, p.name, i.variantName, i.quantity, i.price) " +
+           "FROM OrderItem i LEFT JOIN i.product p WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItemRow> findRowsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
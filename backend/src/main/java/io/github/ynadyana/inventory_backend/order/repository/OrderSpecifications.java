@@ -0,0 +1,51 @@
+package io.github.ynadyana.inventory_backend.order.repository;
+
+import io.github.ynadyana.inventory_backend.order.dto.OrderFilter;
+import io.github.ynadyana.inventory_backend.order.model.Order;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Builds only the predicates that are actually set, so PostgreSQL can pick the matching composite index
+public final class OrderSpecifications {
+
+    // Newest first; matches the (order_date DESC, id DESC) indexes on orders
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("orderDate"), Sort.Order.desc("id"));
+
+    private OrderSpecifications() {}
+
+    public static Specification<Order> matching(OrderFilter filter, LocalDateTime afterDate, Long afterId) {
+        return (root, query, cb) -> {
+            // Load the customer in the same query (skipped for count queries)
+            if (query != null && query.getResultType() == Order.class) {
+                root.fetch("user", JoinType.LEFT);
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.userId() != null) {
+                predicates.add(cb.equal(root.get("user").get("id"), filter.userId()));
+            }
+            if (filter.status() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.status()));
+            }
+            if (filter.from() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("orderDate"), filter.from()));
+            }
+            if (filter.to() != null) {
+                predicates.add(cb.lessThan(root.get("orderDate"), filter.to()));
+            }
+            // Seek past the last row of the previous page: (orderDate, id) < (afterDate, afterId)
+            if (afterDate != null && afterId != null) {
+                predicates.add(cb.or(
+                        cb.lessThan(root.get("orderDate"), afterDate),
+                        cb.and(cb.equal(root.get("orderDate"), afterDate), cb.lessThan(root.get("id"), afterId))));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.ynadyana.inventory_backend.order.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Meters for OrderService.placeOrder: one "checkout.phase" timer per step, cart size
+ * (lines and units) and rejected checkouts by reason. Everything is registered up front, so the
+ * checkout path only records.
+ */
+@Component
+public class CheckoutMetrics {
+
+    enum Phase {
+        LOAD_PRODUCTS("load_products"),
+        RESOLVE_VARIANTS("resolve_variants"),
+        DEDUCT_STOCK("deduct_stock"),
+        SAVE_ORDER("save_order"),
+        MAP_RESPONSE("map_response");
+
+        final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    enum Rejection {
+        PRODUCT_NOT_FOUND("product_not_found"),
+        VARIANT_NOT_FOUND("variant_not_found"),
+        INSUFFICIENT_STOCK("insufficient_stock");
+
+        final String tag;
+
+        Rejection(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Phase, Timer> phases = new EnumMap<>(Phase.class);
+    private final Map<Rejection, Counter> rejections = new EnumMap<>(Rejection.class);
+    private final DistributionSummary cartLines;
+    private final DistributionSummary cartUnits;
+
+    public CheckoutMetrics(MeterRegistry meterRegistry) {
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, Timer.builder("checkout.phase").tag("phase", phase.tag).register(meterRegistry));
+        }
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, Counter.builder("checkout.rejected").tag("reason", rejection.tag).register(meterRegistry));
+        }
+        this.cartLines = DistributionSummary.builder("checkout.cart.lines").register(meterRegistry);
+        this.cartUnits = DistributionSummary.builder("checkout.cart.units").register(meterRegistry);
+    }
+
+    // Times the step even when it throws, so a failing phase still shows up in the latency
+    <T> T time(Phase phase, Supplier<T> step) {
+        return phases.get(phase).record(step);
+    }
+
+    void run(Phase phase, Runnable step) {
+        phases.get(phase).record(step);
+    }
+
+    void cart(int lines, int units) {
+        cartLines.record(lines);
+        cartUnits.record(units);
+    }
+
+    RuntimeException rejected(Rejection reason, String message) {
+        rejections.get(reason).increment();
+        return new RuntimeException(message);
+    }
+}
@@ -1,25 +1,49 @@
 package io.github.ynadyana.inventory_backend.order.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.ynadyana.inventory_backend.dashboard.service.OrderRollupService;
+import io.github.ynadyana.inventory_backend.order.dto.OrderFilter;
+import io.github.ynadyana.inventory_backend.order.dto.OrderItemRow;
+import io.github.ynadyana.inventory_backend.order.dto.OrderPage;
 import io.github.ynadyana.inventory_backend.order.dto.OrderRequest;
 import io.github.ynadyana.inventory_backend.order.dto.OrderResponse;
 import io.github.ynadyana.inventory_backend.order.model.Order;
 import io.github.ynadyana.inventory_backend.order.model.OrderItem;
 import io.github.ynadyana.inventory_backend.order.model.OrderStatus;
+import io.github.ynadyana.inventory_backend.order.repository.OrderItemRepository;
 import io.github.ynadyana.inventory_backend.order.repository.OrderRepository;
+import io.github.ynadyana.inventory_backend.order.repository.OrderSpecifications;
+import io.github.ynadyana.inventory_backend.order.service.CheckoutMetrics.Phase;
+import io.github.ynadyana.inventory_backend.order.service.CheckoutMetrics.Rejection;
 import io.github.ynadyana.inventory_backend.product.model.Product;
-import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
 import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
-import io.github.ynadyana.inventory_backend.product.repository.ProductVariantRepository;
+import io.github.ynadyana.inventory_backend.product.service.CatalogCache;
+import io.github.ynadyana.inventory_backend.product.service.StockService;
+import io.github.ynadyana.inventory_backend.product.service.VariantIndex;
 import io.github.ynadyana.inventory_backend.user.AppUser;
 import io.github.ynadyana.inventory_backend.user.Role;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,8 +51,19 @@ import java.util.stream.Collectors;
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
-    private final ProductVariantRepository productVariantRepository;
+    private final StockService stockService;
+    private final CatalogCache catalogCache;
+    private final VariantIndex variantIndex;
+    private final OrderRollupService orderRollupService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final CheckoutMetrics checkoutMetrics;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int EXPORT_CHUNK_SIZE = 500;
 
     @Transactional
     public OrderResponse placeOrder(AppUser user, OrderRequest request) {
@@ -41,102 +76,201 @@ public class OrderService {
                 .shippingAddress(request.getShippingAddress())
                 .build();
 
-        List<OrderItem> items = new ArrayList<>();
-
-        for (var itemRequest : request.getItems()) {
+        // Variant id -> total quantity, sorted so concurrent checkouts lock rows in the same order
+        Map<Long, Integer> deductions = new TreeMap<>();
+        Map<Long, String> labels = new HashMap<>();
+        checkoutMetrics.cart(request.getItems().size(),
+                request.getItems().stream().mapToInt(OrderRequest.OrderItemRequest::getQuantity).sum());
 
-            // 1. Fetch the Parent Product first
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + itemRequest.getProductId()));
+        // Load every product in the cart (with variants) in one round trip instead of one per line
+        long variantsStamp = variantIndex.stamp();
+        Set<Long> productIds = request.getItems().stream()
+                .map(OrderRequest.OrderItemRequest::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> productsById = checkoutMetrics.time(Phase.LOAD_PRODUCTS, () ->
+                productRepository.findAllWithVariantsByIdIn(productIds).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity())));
 
-            // 2. Parse the Variant String from Frontend (e.g., "Midnight - 512GB")
-            String fullVariantString = itemRequest.getVariantName();
-            String targetColor = "Standard";
-            String targetStorage = null;
+        List<OrderItem> items = checkoutMetrics.time(Phase.RESOLVE_VARIANTS, () -> {
+            List<OrderItem> lines = new ArrayList<>();
+            for (var itemRequest : request.getItems()) {
 
-            if (fullVariantString != null && fullVariantString.contains(" - ")) {
-                // Split "Midnight - 512GB" -> Color: Midnight, Storage: 512GB
-                String[] parts = fullVariantString.split(" - ");
-                targetColor = parts[0].trim();
-                if (parts.length > 1) {
-                    targetStorage = parts[1].trim();
+                // 1. Look up the Parent Product from the bulk fetch
+                Product product = productsById.get(itemRequest.getProductId());
+                if (product == null) {
+                    throw checkoutMetrics.rejected(Rejection.PRODUCT_NOT_FOUND, "Product not found: " + itemRequest.getProductId());
                 }
-            } else if (fullVariantString != null && !fullVariantString.trim().isEmpty()) {
-                // Handle cases like "Standard" or just "Black"
-                targetColor = fullVariantString.trim();
+
+                // 2. Resolve the Variant: explicit id, then SKU, then the display name (e.g., "Midnight - 512GB")
+                String fullVariantString = itemRequest.getVariantName();
+                Long variantId = variantIndex.resolve(product, variantsStamp, itemRequest.getVariantId(), itemRequest.getSku(), fullVariantString)
+                        .orElseThrow(() -> checkoutMetrics.rejected(Rejection.VARIANT_NOT_FOUND,
+                                "Product Variant not found: " + describe(itemRequest)));
+
+                // 3. Queue Stock Deduction (applied atomically below)
+                deductions.merge(variantId, itemRequest.getQuantity(), Integer::sum);
+                labels.putIfAbsent(variantId, product.getName() + " (" + describe(itemRequest) + ")");
+
+                // 4. Create Order Item
+                OrderItem orderItem = OrderItem.builder()
+                        .productId(itemRequest.getProductId())
+                        .product(product)
+                        .variantName(fullVariantString) // Keep the descriptive name for the receipt
+                        .quantity(itemRequest.getQuantity())
+                        .price(itemRequest.getPrice())
+                        .order(order)
+                        .build();
+
+                lines.add(orderItem);
             }
+            return lines;
+        });
+
+        // 5. Deduct Stock: one conditional UPDATE per variant, rolls back the whole order on failure
+        checkoutMetrics.run(Phase.DEDUCT_STOCK, () -> {
+            deductions.forEach((variantId, quantity) -> {
+                if (!stockService.tryDeduct(variantId, quantity)) {
+                    throw checkoutMetrics.rejected(Rejection.INSUFFICIENT_STOCK, "Insufficient stock for: " + labels.get(variantId));
+                }
+            });
+            catalogCache.stockChanged(productIds);
+        });
+
+        order.setItems(items);
+        Order savedOrder = checkoutMetrics.time(Phase.SAVE_ORDER, () -> {
+            Order saved = orderRepository.save(order);
+            orderRollupService.orderPlaced(saved);
+            return saved;
+        });
+
+        return checkoutMetrics.time(Phase.MAP_RESPONSE, () -> mapToResponse(savedOrder));
+    }
 
-            // 3. Find the matching variant from the product's list
-            String finalColor = targetColor;
-            String finalStorage = targetStorage;
-
-            ProductVariant variant = product.getVariants().stream()
-                    .filter(v -> {
-                        // Check Color Match (Case Insensitive)
-                        boolean colorMatch = v.getColorName() != null && v.getColorName().equalsIgnoreCase(finalColor);
-                        
-                        // Check Storage Match (If storage was requested)
-                        boolean storageMatch = true;
-                        if (finalStorage != null) {
-                            storageMatch = v.getStorage() != null && v.getStorage().equalsIgnoreCase(finalStorage);
-                        }
-                        
-                        return colorMatch && storageMatch;
-                    })
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("Product Variant not found: " + fullVariantString));
-
-            // 4. Check Stock
-            if (variant.getStock() < itemRequest.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for: " + product.getName() + " (" + fullVariantString + ")");
+    // Keyset (seek) pagination on (orderDate, id), newest first. Every call returns one page
+    // (DEFAULT_PAGE_SIZE without a limit); the full set is only available through exportOrders.
+    @Transactional(readOnly = true)
+    public OrderPage getOrders(AppUser user, OrderFilter filter, String cursor, Integer limit) {
+        OrderFilter scoped = scopeToUser(user, filter);
+        LocalDateTime afterDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                afterDate = LocalDateTime.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
             }
+        }
+
+        var spec = OrderSpecifications.matching(scoped, afterDate, afterId);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<Order> orders = orderRepository.findBy(spec, q -> q.sortBy(OrderSpecifications.NEWEST_FIRST).limit(pageSize).all());
 
-            // 5. Deduct Stock
-            variant.setStock(variant.getStock() - itemRequest.getQuantity());
-            productVariantRepository.save(variant);
-
-            // 6. Create Order Item
-            OrderItem orderItem = OrderItem.builder()
-                    .productId(itemRequest.getProductId())
-                    .product(product)
-                    .variantName(fullVariantString) // Keep the descriptive name for the receipt
-                    .quantity(itemRequest.getQuantity())
-                    .price(itemRequest.getPrice())
-                    .order(order)
-                    .build();
-
-            items.add(orderItem);
+        String nextCursor = null;
+        if (orders.size() == pageSize) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((last.getOrderDate() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
         }
 
-        order.setItems(items);
-        Order savedOrder = orderRepository.save(order);
+        return new OrderPage(mapToResponses(orders), nextCursor);
+    }
 
-        return mapToResponse(savedOrder);
+    // Streams matching orders as NDJSON straight from a database cursor. Orders are mapped in chunks
+    // (one item query per chunk) and the persistence context is cleared once each is written, customers
+    // included, so the heap never holds the whole export. Read-only: there is nothing to flush.
+    @Transactional(readOnly = true)
+    public void exportOrders(AppUser user, OrderFilter filter, OutputStream out) {
+        var spec = OrderSpecifications.matching(scopeToUser(user, filter), null, null);
+        List<Order> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<Order> orders = orderRepository.findBy(spec, q -> q.sortBy(OrderSpecifications.NEWEST_FIRST).stream())) {
+            orders.forEach(order -> {
+                chunk.add(order);
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    writeChunk(chunk, out);
+                }
+            });
+            writeChunk(chunk, out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    public List<OrderResponse> getAllOrders(AppUser user) {
-        List<Order> orders;
-        if (user.getRole() == Role.STAFF) {
-            orders = orderRepository.findAll();
-        } else {
-            orders = orderRepository.findByUser(user);
+    private void writeChunk(List<Order> chunk, OutputStream out) {
+        try {
+            for (OrderResponse response : mapToResponses(chunk)) {
+                out.write(objectMapper.writeValueAsBytes(response));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        entityManager.clear();
+        chunk.clear();
+    }
 
-        return orders.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    // Staff see every order (optionally filtered by user); everyone else only their own
+    private OrderFilter scopeToUser(AppUser user, OrderFilter filter) {
+        if (user.getRole() == Role.STAFF) {
+            return filter;
+        }
+        return new OrderFilter(filter.status(), user.getId(), filter.from(), filter.to());
     }
 
     public OrderResponse updateStatus(Long orderId, OrderStatus newStatus) {
-        Order order = orderRepository.findById(orderId)
+        // Locked so that concurrent status changes to the same order apply one after the other
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
         order.setStatus(newStatus);
         Order savedOrder = orderRepository.save(order);
-        return mapToResponse(savedOrder);
+        orderRollupService.statusChanged(savedOrder);
+        return mapToResponses(List.of(savedOrder)).get(0);
+    }
+
+    private String describe(OrderRequest.OrderItemRequest item) {
+        if (item.getVariantName() != null) return item.getVariantName();
+        if (item.getSku() != null) return item.getSku();
+        return item.getVariantId() != null ? "#" + item.getVariantId() : "Standard";
     }
 
+    // For an order built in this request: items and products are already in memory
     private OrderResponse mapToResponse(Order order) {
+        return toResponse(order, order.getItems().stream().map(item -> OrderResponse.OrderItemResponse.builder()
+                        .productId(item.getProductId())
+                        .productName(item.getProduct().getName())
+                        .variantName(item.getVariantName())
+                        .quantity(item.getQuantity())
+                        .price(item.getPrice())
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    // For loaded orders: customers are fetch-joined by the listing query, and every line with its
+    // product name comes from one projection query, instead of lazy loads per order and per item
+    private List<OrderResponse> mapToResponses(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+        Map<Long, List<OrderResponse.OrderItemResponse>> itemsByOrder = new HashMap<>();
+        for (OrderItemRow row : orderItemRepository.findRowsByOrderIds(orderIds)) {
+            itemsByOrder.computeIfAbsent(row.orderId(), id -> new ArrayList<>()).add(OrderResponse.OrderItemResponse.builder()
+                    .productId(row.productId())
+                    .productName(row.productName())
+                    .variantName(row.variantName())
+                    .quantity(row.quantity())
+                    .price(row.price())
+                    .build());
+        }
+        return orders.stream()
+                .map(order -> toResponse(order, itemsByOrder.getOrDefault(order.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    private OrderResponse toResponse(Order order, List<OrderResponse.OrderItemResponse> items) {
         return OrderResponse.builder()
                 .id(order.getId())
                 .userId(order.getUser().getId())
@@ -147,14 +281,7 @@ public class OrderService {
                 .shippingMethod(order.getShippingMethod())
                 .shippingAddress(order.getShippingAddress())
                 .status(order.getStatus())
-                .items(order.getItems().stream().map(item -> OrderResponse.OrderItemResponse.builder()
-                        .productId(item.getProductId())
-                        .productName(item.getProduct().getName())
-                        .variantName(item.getVariantName())
-                        .quantity(item.getQuantity())
-                        .price(item.getPrice())
-                        .build())
-                        .collect(Collectors.toList()))
+                .items(items)
                 .build();
     }
 }
\ No newline at end of file
@@ -1,21 +1,30 @@
 package io.github.ynadyana.inventory_backend.product.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.ynadyana.inventory_backend.product.dto.LowStockItem;
+import io.github.ynadyana.inventory_backend.product.dto.ProductFilter;
 import io.github.ynadyana.inventory_backend.product.dto.ProductRequest;
 import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.service.LowStockIndex;
 import io.github.ynadyana.inventory_backend.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/products")
@@ -25,32 +34,80 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final LowStockIndex lowStockIndex;
+    private final ObjectMapper objectMapper;
 
     // --- PUBLIC ENDPOINTS (No Login Required) ---
 
     @GetMapping
-    public ResponseEntity<Page<Product>> getAllProducts(
+    public ResponseEntity<byte[]> getAllProducts(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String brand,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean facets,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request
     ) {
-        // Sort by ID descending to show newest products first
-        Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-        
-        // Pass 'true' for activeOnly so customers only see active products
-        return ResponseEntity.ok(productService.getAllProducts(search, category, brand, true, pageable));
+        // All filters combine; 'true' for activeOnly so customers only see active products
+        ProductFilter filter = new ProductFilter(search, category, brand, minPrice, maxPrice, inStock, true);
+        Pageable pageable = PageRequest.of(page, size, toSort(sort, filter.hasSearch()));
+        return conditional(request, () -> productService.getAllProducts(filter, pageable, facets));
+    }
+
+    // Strong ETag hashed from the JSON being sent, so it moves with the data however that changed
+    // (another instance, a direct SQL write) and every instance agrees on it; a matching If-None-Match
+    // gets a bodiless 304. The body usually comes from the catalog cache, so that costs a serialization
+    // but no query. no-cache: always revalidate. No Last-Modified: stock changes never touch
+    // Product.updatedAt, and HTTP dates cannot tell two writes within the same second apart.
+    private <T> ResponseEntity<byte[]> conditional(WebRequest request, Supplier<T> body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body.get());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (request.checkNotModified("\"" + DigestUtils.md5DigestAsHex(json) + "\"")) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
+
+    // newest (default), price-asc, price-desc, name; searches default to relevance order
+    private static Sort toSort(String sort, boolean searching) {
+        Sort newestFirst = Sort.by("id").descending();
+        if (sort == null || sort.isBlank()) {
+            return searching ? Sort.unsorted() : newestFirst;
+        }
+        return switch (sort) {
+            case "price-asc" -> Sort.by("price").ascending().and(newestFirst);
+            case "price-desc" -> Sort.by("price").descending().and(newestFirst);
+            case "name" -> Sort.by("name").ascending().and(newestFirst);
+            default -> newestFirst;
+        };
     }
 
     @GetMapping("/categories")
-    public ResponseEntity<List<String>> getCategories() {
-        return ResponseEntity.ok(productService.getAllCategories());
+    public ResponseEntity<byte[]> getCategories(WebRequest request) {
+        return conditional(request, productService::getAllCategories);
+    }
+
+    // Category and brand counts over active products (cached server-side)
+    @GetMapping("/facets")
+    public ResponseEntity<byte[]> getFacets(WebRequest request) {
+        return conditional(request, productService::getFacets);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long id, WebRequest request) {
+        return conditional(request, () -> productService.getProductDetail(id));
     }
 
     // --- PROTECTED ENDPOINTS (Staff/Admin Only) ---
@@ -97,6 +154,29 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    // Served from the in-memory low-stock index, lowest stock first.
+    // scope=product sums stock over variants; scope=variant lists individual variants.
+    @GetMapping("/low-stock")
+    @PreAuthorize("hasRole('STAFF')")
+    public ResponseEntity<Page<LowStockItem>> getLowStock(
+            @RequestParam(defaultValue = "product") String scope,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        int pageSize = Math.min(size, 200);
+        return ResponseEntity.ok("variant".equalsIgnoreCase(scope)
+                ? lowStockIndex.variants(page, pageSize)
+                : lowStockIndex.products(page, pageSize));
+    }
+
+    // Repairs the index after stock was changed outside the API (e.g. SQL imports)
+    @PostMapping("/low-stock/refresh")
+    @PreAuthorize("hasRole('STAFF')")
+    public ResponseEntity<Void> refreshLowStock() {
+        lowStockIndex.reload();
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping(value = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<Product> uploadImage(@PathVariable Long id, @RequestParam("file") MultipartFile file) {
@@ -0,0 +1,25 @@
+package io.github.ynadyana.inventory_backend.product.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Map;
+
+// Same paging fields as Spring's Page JSON, plus optional facet counts (null unless requested)
+public record CatalogPage(
+    List<ProductSummary> content,
+    int number,
+    int size,
+    long totalElements,
+    int totalPages,
+    boolean first,
+    boolean last,
+    Facets facets
+) {
+    public record Facets(Map<String, Long> categories, Map<String, Long> brands) {}
+
+    public static CatalogPage of(Page<ProductSummary> page, Facets facets) {
+        return new CatalogPage(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(),
+                page.getTotalPages(), page.isFirst(), page.isLast(), facets);
+    }
+}
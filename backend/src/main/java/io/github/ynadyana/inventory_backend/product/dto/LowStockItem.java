@@ -0,0 +1,12 @@
+package io.github.ynadyana.inventory_backend.product.dto;
+
+// variantId/variant are null for product-level entries, where stock is the sum over all variants
+public record LowStockItem(
+    Long productId,
+    Long variantId,
+    String name,
+    String sku,
+    String variant,
+    String imageUrl,
+    int stock
+) {}
@@ -0,0 +1,27 @@
+package io.github.ynadyana.inventory_backend.product.dto;
+
+import java.math.BigDecimal;
+
+// Every field is optional; the set ones are combined with AND
+public record ProductFilter(
+    String search,
+    String category,
+    String brand,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    boolean inStockOnly,
+    boolean activeOnly
+) {
+    public boolean hasSearch() {
+        return search != null && !search.isBlank();
+    }
+
+    // Facets count each value as if its own filter were not applied, so other options stay visible
+    public ProductFilter withoutCategory() {
+        return new ProductFilter(search, null, brand, minPrice, maxPrice, inStockOnly, activeOnly);
+    }
+
+    public ProductFilter withoutBrand() {
+        return new ProductFilter(search, category, null, minPrice, maxPrice, inStockOnly, activeOnly);
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.ynadyana.inventory_backend.product.dto;
+
+import java.math.BigDecimal;
+
+// One catalog grid/table row: variant stock and prices folded into totals by a single GROUP BY query.
+// Variants and album images are only served by GET /api/products/{id}.
+public record ProductSummary(
+    Long id,
+    String sku,
+    String name,
+    String description,
+    String category,
+    String brand,
+    BigDecimal price,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    String imageUrl,
+    String thumbnailUrl,
+    String cardUrl,
+    Long totalStock,
+    Boolean active
+) {}
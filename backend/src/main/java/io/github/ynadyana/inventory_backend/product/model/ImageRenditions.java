@@ -0,0 +1,19 @@
+package io.github.ynadyana.inventory_backend.product.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resized JPEG copies of an uploaded image, filled in asynchronously by ImageRenditionService.
+// Null until rendering finishes (or if the upload is not a decodable image): use the original then.
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageRenditions {
+
+    private String thumbnailUrl; // admin tables, cart
+    private String cardUrl;      // catalog grid and list
+    private String detailUrl;    // product page and quick view
+}
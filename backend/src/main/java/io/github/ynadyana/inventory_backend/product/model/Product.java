@@ -16,7 +16,11 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Catalog listing (newest first) and price-range filters; see ProductIndexes for category/brand
+        @Index(name = "idx_products_active_id", columnList = "active, id DESC"),
+        @Index(name = "idx_products_active_price", columnList = "active, price")
+})
 public class Product {
 
     @Id
@@ -38,6 +42,9 @@ public class Product {
     private BigDecimal price;
     
     private String imageUrl;
+
+    @Embedded
+    private ImageRenditions imageRenditions;
     
     private boolean active;
     private String brand;
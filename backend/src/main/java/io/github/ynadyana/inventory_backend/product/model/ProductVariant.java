@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,7 +16,10 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "product_variant")
+@Table(name = "product_variant", indexes = {
+        // In-stock filter: EXISTS (variant of this product with stock > 0)
+        @Index(name = "idx_variant_product_stock", columnList = "product_id, stock")
+})
 public class ProductVariant {
 
     @Id
@@ -29,6 +33,9 @@ public class ProductVariant {
     private String colorHex;
 
     private String imageUrl;
+
+    @Embedded
+    private ImageRenditions imageRenditions;
     
     private Integer stock;
 
@@ -39,6 +46,12 @@ public class ProductVariant {
 
     private String sku;
 
+    // Optimistic lock for admin edits; checkout uses the atomic decrement in ProductVariantRepository
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // Changed to EAGER to prevent lazy loading error
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "variant_images", joinColumns = @JoinColumn(name = "variant_id"))
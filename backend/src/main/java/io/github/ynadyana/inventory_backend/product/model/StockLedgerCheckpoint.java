@@ -0,0 +1,24 @@
+package io.github.ynadyana.inventory_backend.product.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Highest journal sequence already applied to product_variant.stock.
+// Written in the same transaction as the flushed deltas so journal replay is idempotent.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "stock_ledger_checkpoint")
+public class StockLedgerCheckpoint {
+
+    public static final Long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+}
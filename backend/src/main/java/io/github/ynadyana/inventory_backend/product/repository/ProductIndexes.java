@@ -0,0 +1,35 @@
+package io.github.ynadyana.inventory_backend.product.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Catalog filters compare category and brand case-insensitively, which a plain column index
+ * cannot serve. JPA has no way to declare expression indexes, so on PostgreSQL create them here.
+ * Idempotent (IF NOT EXISTS); other databases rely on the @Table indexes only.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductIndexes {
+
+    private final JdbcTemplate jdbcTemplate;
+    // Depend on the EntityManagerFactory so the schema update (which creates the table) has run
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void create() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_products_active_category_ci ON products (active, lower(category), id DESC)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_products_active_brand_ci ON products (active, lower(brand), id DESC)");
+        log.debug("Ensured case-insensitive catalog indexes");
+    }
+}
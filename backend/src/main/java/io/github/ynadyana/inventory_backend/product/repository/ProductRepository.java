@@ -4,33 +4,71 @@ import io.github.ynadyana.inventory_backend.product.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
 
     boolean existsBySku(String sku);
 
     Optional<Product> findBySku(String sku);
 
-  
-    // 1. For Customers: Search by name AND ensure product is active
-    Page<Product> findByNameContainingIgnoreCaseAndActiveTrue(String name, Pageable pageable);
+    // 1. For Customers: Just get list (Active only)
+    Page<Product> findByActiveTrue(Pageable pageable);
 
-    // 2. For Staff: Search by name (Active OR Inactive)
-    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    // 2. For the Dashboard
+    long countByActiveTrue();
 
-    // 3. For Customers: Filter by Category AND Active
-    Page<Product> findByCategoryAndActiveTrue(String category, Pageable pageable);
+    // 3. For Checkout: every product in the cart with its variants in one query
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.variants WHERE p.id IN :ids")
+    List<Product> findAllWithVariantsByIdIn(@Param("ids") Collection<Long> ids);
 
-    // 4. For Staff: Filter by Category (All)
-    Page<Product> findByCategory(String category, Pageable pageable);
+    // 4. For the Low-Stock Index: one flat row per variant (or per product without variants)
+    @Query("SELECT p.id AS productId, p.name AS productName, p.sku AS productSku, p.imageUrl AS imageUrl, " +
+           "p.active AS active, v.id AS variantId, v.colorName AS colorName, v.storage AS storage, " +
+           "COALESCE(v.stock, 0) AS stock FROM Product p LEFT JOIN p.variants v")
+    List<StockRow> findAllStockRows();
 
-    // 5. For Customers: Just get list (Active only)
-    Page<Product> findByActiveTrue(Pageable pageable);
+    // 5. For the Search Index: text fields only, without loading variants
+    @Query("SELECT p.id AS id, p.name AS name, p.brand AS brand, p.category AS category, " +
+           "p.description AS description, p.active AS active FROM Product p")
+    List<SearchRow> findAllSearchRows();
+
+    // 6. For the Image Pipeline: ignored (0 rows) if the image was replaced while rendering
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.imageRenditions.thumbnailUrl = :thumbnail, p.imageRenditions.cardUrl = :card, " +
+           "p.imageRenditions.detailUrl = :detail WHERE p.id = :id AND p.imageUrl = :imageUrl")
+    int updateImageRenditions(@Param("id") Long id, @Param("imageUrl") String imageUrl,
+                              @Param("thumbnail") String thumbnail, @Param("card") String card, @Param("detail") String detail);
+
+    // 7. For Upload Cleanup: whether a stored file is still in use
+    boolean existsByImageUrl(String imageUrl);
 
-    // 6. For Staff: Filter by Brand (All)
-    Page<Product> findByBrand(String brand, Pageable pageable);
+    interface SearchRow {
+        Long getId();
+        String getName();
+        String getBrand();
+        String getCategory();
+        String getDescription();
+        Boolean getActive();
+    }
 
-    // 7. For Customers: Filter by Brand AND Active
-    Page<Product> findByBrandAndActiveTrue(String brand, Pageable pageable);
+    interface StockRow {
+        Long getProductId();
+        String getProductName();
+        String getProductSku();
+        String getImageUrl();
+        Boolean getActive();
+        Long getVariantId();
+        String getColorName();
+        String getStorage();
+        Integer getStock();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package io.github.ynadyana.inventory_backend.product.repository;
+
+import io.github.ynadyana.inventory_backend.product.dto.ProductSummary;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Specification queries that Spring Data cannot derive: id-only results, GROUP BY counts and list rows
+public interface ProductRepositoryCustom {
+
+    List<Long> findIds(Specification<Product> spec);
+
+    // value -> number of matching products, most common first; null/blank values are skipped
+    Map<String, Long> countBy(String attribute, Specification<Product> spec);
+
+    // One page of list rows, aggregated over variants in the same query
+    Page<ProductSummary> findSummaries(Specification<Product> spec, Pageable pageable);
+
+    // List rows for the given ids, in no particular order
+    List<ProductSummary> findSummariesByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,123 @@
+package io.github.ynadyana.inventory_backend.product.repository;
+
+import io.github.ynadyana.inventory_backend.product.dto.ProductSummary;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIds(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(root.get("id")).where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public Map<String, Long> countBy(String attribute, Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Expression<String> value = root.get(attribute);
+        Expression<Long> count = cb.count(root);
+        Predicate filter = spec.toPredicate(root, query, cb);
+        query.multiselect(value, count)
+                .where(cb.and(filter, cb.isNotNull(value), cb.notEqual(cb.trim(value), "")))
+                .groupBy(value)
+                .orderBy(cb.desc(count), cb.asc(value));
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counts.put(row.get(0, String.class), row.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    @Override
+    public Page<ProductSummary> findSummaries(Specification<Product> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<Product> root = query.from(Product.class);
+        summarize(query, root, cb, spec.toPredicate(root, query, cb));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        List<ProductSummary> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<ProductSummary> findSummariesByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<Product> root = query.from(Product.class);
+        summarize(query, root, cb, root.get("id").in(ids));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // SELECT p.*, SUM(v.stock), MIN/MAX(variant price or base price) ... LEFT JOIN variants GROUP BY p.*
+    private static void summarize(CriteriaQuery<ProductSummary> query, Root<Product> root, CriteriaBuilder cb, Predicate filter) {
+        Join<Product, ProductVariant> variant = root.join("variants", JoinType.LEFT);
+        Expression<BigDecimal> basePrice = root.get("price");
+        Expression<BigDecimal> variantPrice = variant.get("price");
+        // A variant without its own (positive) price sells at the product price, as in the admin table
+        Expression<BigDecimal> effectivePrice = cb.<BigDecimal>selectCase()
+                .when(cb.gt(variantPrice, BigDecimal.ZERO), variantPrice)
+                .otherwise(basePrice);
+        Expression<Long> totalStock = cb.coalesce(cb.sumAsLong(variant.get("stock")), 0L);
+
+        Expression<String> thumbnailUrl = root.get("imageRenditions").get("thumbnailUrl");
+        Expression<String> cardUrl = root.get("imageRenditions").get("cardUrl");
+
+        List<Expression<?>> columns = List.of(root.get("id"), root.get("sku"), root.get("name"), root.get("description"),
+                root.get("category"), root.get("brand"), basePrice, root.get("imageUrl"), thumbnailUrl, cardUrl,
+                root.get("active"));
+        query.select(cb.construct(ProductSummary.class,
+                        root.get("id"), root.get("sku"), root.get("name"), root.get("description"),
+                        root.get("category"), root.get("brand"), basePrice,
+                        cb.min(effectivePrice), cb.max(effectivePrice),
+                        root.get("imageUrl"), thumbnailUrl, cardUrl, totalStock, root.get("active")))
+                .where(filter)
+                .groupBy(columns);
+    }
+
+    private long count(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.count(root)).where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.ynadyana.inventory_backend.product.repository;
+
+import io.github.ynadyana.inventory_backend.product.dto.ProductFilter;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+// Builds only the predicates that are actually set, so PostgreSQL can pick the matching composite index
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {}
+
+    // candidateIds: products already matched by the search index (null = search by name with LIKE instead)
+    public static Specification<Product> matching(ProductFilter filter, Collection<Long> candidateIds) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.activeOnly()) {
+                predicates.add(cb.isTrue(root.get("active")));
+            }
+            if (candidateIds != null) {
+                predicates.add(candidateIds.isEmpty() ? cb.disjunction() : root.get("id").in(candidateIds));
+            } else if (filter.hasSearch()) {
+                predicates.add(cb.like(cb.lower(root.get("name")), "%" + escapeLike(filter.search()) + "%", '\\'));
+            }
+            // Case-insensitive to match the storefront links (?category=laptop); see ProductIndexes
+            if (filter.category() != null && !filter.category().isBlank()) {
+                predicates.add(cb.equal(cb.lower(root.get("category")), filter.category().trim().toLowerCase(Locale.ROOT)));
+            }
+            if (filter.brand() != null && !filter.brand().isBlank()) {
+                predicates.add(cb.equal(cb.lower(root.get("brand")), filter.brand().trim().toLowerCase(Locale.ROOT)));
+            }
+            if (filter.minPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.minPrice()));
+            }
+            if (filter.maxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.maxPrice()));
+            }
+            // At least one variant with stock: EXISTS on (product_id, stock)
+            if (filter.inStockOnly() && query != null) {
+                Subquery<Long> inStock = query.subquery(Long.class);
+                Root<ProductVariant> variant = inStock.from(ProductVariant.class);
+                inStock.select(variant.get("id"))
+                        .where(cb.equal(variant.get("product"), root), cb.greaterThan(variant.get("stock"), 0));
+                predicates.add(cb.exists(inStock));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
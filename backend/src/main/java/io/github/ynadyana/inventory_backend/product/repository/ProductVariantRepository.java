@@ -2,8 +2,52 @@ package io.github.ynadyana.inventory_backend.product.repository;
 
 import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProductVariantRepository extends JpaRepository<ProductVariant, Long> {
     Optional<ProductVariant> findByProductIdAndColorName(Long productId, String colorName);
-}
\ No newline at end of file
+
+    // Conditional atomic decrement: returns 0 when the row does not have enough stock.
+    // Bumps the version so read-modify-write paths detect the concurrent change.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProductVariant v SET v.stock = v.stock - :quantity, v.version = v.version + 1 " +
+           "WHERE v.id = :id AND v.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Unconditional delta used by the stock ledger flush (the ledger already enforced availability)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProductVariant v SET v.stock = v.stock - :quantity, v.version = v.version + 1 WHERE v.id = :id")
+    int applyReservedStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Query("SELECT COALESCE(v.stock, 0) FROM ProductVariant v WHERE v.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
+    @Query("SELECT v.id AS id, COALESCE(v.stock, 0) AS stock FROM ProductVariant v")
+    List<StockLevel> findAllStockLevels();
+
+    // Rendition results, skipped if the image was replaced while rendering. Leaves the version
+    // alone: an admin edit in flight should not fail over a background thumbnail.
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProductVariant v SET v.imageRenditions.thumbnailUrl = :thumbnail, v.imageRenditions.cardUrl = :card, " +
+           "v.imageRenditions.detailUrl = :detail WHERE v.id = :id AND v.imageUrl = :imageUrl")
+    int updateImageRenditions(@Param("id") Long id, @Param("imageUrl") String imageUrl,
+                              @Param("thumbnail") String thumbnail, @Param("card") String card, @Param("detail") String detail);
+
+    @Query("SELECT v.product.id FROM ProductVariant v WHERE v.id = :id")
+    Optional<Long> findProductIdById(@Param("id") Long id);
+
+    // Main image or any album image; used before deleting an upload whose transaction rolled back
+    @Query("SELECT COUNT(v) > 0 FROM ProductVariant v LEFT JOIN v.albumImages a WHERE v.imageUrl = :url OR a = :url")
+    boolean existsByImageUrlOrAlbumImage(@Param("url") String url);
+
+    interface StockLevel {
+        Long getId();
+        Integer getStock();
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.ynadyana.inventory_backend.product.repository;
+
+import io.github.ynadyana.inventory_backend.product.model.StockLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StockLedgerCheckpointRepository extends JpaRepository<StockLedgerCheckpoint, Long> {
+}
@@ -0,0 +1,212 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.github.ynadyana.inventory_backend.product.dto.CatalogPage;
+import io.github.ynadyana.inventory_backend.product.dto.ProductFilter;
+import io.github.ynadyana.inventory_backend.product.dto.ProductSummary;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the public catalog: product detail by id and list/search pages.
+ *
+ * Both caches are bounded by an estimated weight rather than entry count: a product detail costs
+ * one unit per product, variant and album image, a page one unit per list row.
+ *
+ * Invalidation is by logical clock instead of key removal: every write stamps the products it
+ * touched (and, for changes that can move products in or out of a list, all lists). An entry
+ * loaded before a stamp on anything it contains is treated as a miss. This also covers loads
+ * that were already in flight when the write committed, which plain invalidate() would miss.
+ *
+ * Requests are counted as "catalog.cache.requests" (result=hit|miss|stale) and size/expiry
+ * evictions as "catalog.cache.evictions", both tagged with cache=product|page.
+ */
+@Component
+public class CatalogCache {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<Long, Long> productChangedAt = new ConcurrentHashMap<>();
+    private volatile long listsChangedAt;
+    private volatile long allChangedAt;
+    // In-stock-only lists shift whenever any product sells out
+    private volatile long stockChangedAt;
+
+    private final boolean detailEnabled;
+    private final boolean listEnabled;
+    private final Cache<Long, Entry<Product>> products;
+    private final Cache<PageKey, Entry<CatalogPage>> pages;
+    private final Stats productStats;
+    private final Stats pageStats;
+
+    private record Entry<T>(T value, long loadedAt, int weight) {}
+
+    private record PageKey(ProductFilter filter, Pageable pageable, boolean facets) {}
+
+    private record Stats(Counter hit, Counter miss, Counter stale) {
+        static Stats register(MeterRegistry registry, String cache) {
+            return new Stats(
+                    Counter.builder("catalog.cache.requests").tag("cache", cache).tag("result", "hit").register(registry),
+                    Counter.builder("catalog.cache.requests").tag("cache", cache).tag("result", "miss").register(registry),
+                    Counter.builder("catalog.cache.requests").tag("cache", cache).tag("result", "stale").register(registry));
+        }
+    }
+
+    public CatalogCache(MeterRegistry meterRegistry,
+                        @Value("${app.catalog-cache.detail.enabled}") boolean detailEnabled,
+                        @Value("${app.catalog-cache.list.enabled}") boolean listEnabled,
+                        @Value("${app.catalog-cache.max-weight}") long maxWeight,
+                        @Value("${app.catalog-cache.ttl-seconds}") long ttlSeconds) {
+        this.detailEnabled = detailEnabled;
+        this.listEnabled = listEnabled;
+        this.products = build(meterRegistry, "product", maxWeight / 2, ttlSeconds);
+        this.pages = build(meterRegistry, "page", maxWeight / 2, ttlSeconds);
+        this.productStats = Stats.register(meterRegistry, "product");
+        this.pageStats = Stats.register(meterRegistry, "page");
+    }
+
+    private static <K, V> Cache<K, Entry<V>> build(MeterRegistry registry, String name, long maxWeight, long ttlSeconds) {
+        Counter evictions = Counter.builder("catalog.cache.evictions").tag("cache", name).register(registry);
+        Cache<K, Entry<V>> cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((K key, Entry<V> entry) -> entry.weight())
+                // Safety net for changes made outside the API (SQL imports, another instance)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .evictionListener((K key, Entry<V> entry, RemovalCause cause) -> evictions.increment())
+                .build();
+        registry.gauge("catalog.cache.size", List.of(Tag.of("cache", name)), cache, Cache::estimatedSize);
+        return cache;
+    }
+
+    // --- Reads ---
+
+    public Product product(Long id, Supplier<Product> loader) {
+        if (!detailEnabled) {
+            return loader.get();
+        }
+        Entry<Product> entry = products.getIfPresent(id);
+        if (entry != null) {
+            if (entry.loadedAt() >= Math.max(changedAt(id), allChangedAt)) {
+                productStats.hit().increment();
+                return entry.value();
+            }
+            productStats.stale().increment();
+        } else {
+            productStats.miss().increment();
+        }
+        long loadedAt = clock.get();
+        Product product = loader.get();
+        products.put(id, new Entry<>(product, loadedAt, weigh(product)));
+        return product;
+    }
+
+    public CatalogPage page(ProductFilter filter, Pageable pageable, boolean facets, Supplier<CatalogPage> loader) {
+        if (!listEnabled) {
+            return loader.get();
+        }
+        PageKey key = new PageKey(filter, pageable, facets);
+        Entry<CatalogPage> entry = pages.getIfPresent(key);
+        if (entry != null) {
+            if (isFresh(key, entry)) {
+                pageStats.hit().increment();
+                return entry.value();
+            }
+            pageStats.stale().increment();
+        } else {
+            pageStats.miss().increment();
+        }
+        long loadedAt = clock.get();
+        CatalogPage page = loader.get();
+        int weight = 1 + page.content().size();
+        pages.put(key, new Entry<>(page, loadedAt, weight));
+        return page;
+    }
+
+    private boolean isFresh(PageKey key, Entry<CatalogPage> entry) {
+        if (entry.loadedAt() < Math.max(listsChangedAt, allChangedAt)) {
+            return false;
+        }
+        if (key.filter().inStockOnly() && entry.loadedAt() < stockChangedAt) {
+            return false;
+        }
+        for (ProductSummary product : entry.value().content()) {
+            if (entry.loadedAt() < changedAt(product.id())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --- Invalidation (stamped once the current transaction commits) ---
+
+    // Stock moved without changing which lists a product belongs to (checkout deductions)
+    public void stockChanged(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        afterCommit(() -> {
+            long now = clock.incrementAndGet();
+            ids.forEach(id -> productChangedAt.put(id, now));
+            stockChangedAt = now;
+        });
+    }
+
+    // Anything an admin edits: the product itself, and any list it may join, leave or move within
+    public void productChanged(Long productId) {
+        afterCommit(() -> {
+            long now = clock.incrementAndGet();
+            if (productId != null) {
+                productChangedAt.put(productId, now);
+            }
+            listsChangedAt = now;
+        });
+    }
+
+    public void invalidateAll() {
+        allChangedAt = clock.incrementAndGet();
+        products.invalidateAll();
+        pages.invalidateAll();
+    }
+
+    private long changedAt(Long productId) {
+        return productChangedAt.getOrDefault(productId, 0L);
+    }
+
+    private static int weigh(Product product) {
+        int weight = 1;
+        if (product.getVariants() != null) {
+            for (ProductVariant v : product.getVariants()) {
+                weight += 1 + (v.getAlbumImages() != null ? v.getAlbumImages().size() : 0);
+            }
+        }
+        return weight;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
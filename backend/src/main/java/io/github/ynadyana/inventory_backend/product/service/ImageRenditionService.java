@@ -0,0 +1,240 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.model.ImageRenditions;
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import io.github.ynadyana.inventory_backend.product.repository.ProductVariantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * Turns uploaded product and variant images into three resized, re-compressed JPEG renditions
+ * (thumbnail, card, detail) under uploads/renditions/, so list views fetch kilobytes instead of
+ * multi-megabyte originals.
+ *
+ * Runs on the bounded "imageRenditionExecutor" pool once the row referencing the image has
+ * committed. The URLs are then written back with a conditional UPDATE that is skipped if the
+ * image was replaced in the meantime. Originals are left untouched, and clients fall back to
+ * them until renditions exist.
+ */
+@Service
+@Slf4j
+public class ImageRenditionService {
+
+    enum Size {
+        THUMBNAIL("thumb", 160),
+        CARD("card", 480),
+        DETAIL("detail", 1200);
+
+        final String suffix;
+        final int maxEdge;
+
+        Size(String suffix, int maxEdge) {
+            this.suffix = suffix;
+            this.maxEdge = maxEdge;
+        }
+    }
+
+    private static final String URL_PREFIX = ImageStore.URL_PREFIX;
+    private static final String RENDITION_DIR = "renditions";
+    // Refuse to decode anything larger (a small PNG can declare enormous dimensions)
+    private static final long MAX_PIXELS = 50_000_000L;
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final CatalogCache catalogCache;
+    private final Path uploadDir;
+    private final boolean enabled;
+    private final float quality;
+
+    public ImageRenditionService(ProductRepository productRepository,
+                                 ProductVariantRepository productVariantRepository,
+                                 CatalogCache catalogCache,
+                                 @Value("${file.upload-dir}") String uploadDir,
+                                 @Value("${app.images.renditions.enabled}") boolean enabled,
+                                 @Value("${app.images.renditions.quality}") float quality) {
+        this.productRepository = productRepository;
+        this.productVariantRepository = productVariantRepository;
+        this.catalogCache = catalogCache;
+        this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.enabled = enabled;
+        this.quality = quality;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Async("imageRenditionExecutor")
+    public void renderProductImage(Long productId, String imageUrl) {
+        ImageRenditions renditions = render(imageUrl);
+        if (renditions != null && productRepository.updateImageRenditions(productId, imageUrl,
+                renditions.getThumbnailUrl(), renditions.getCardUrl(), renditions.getDetailUrl()) > 0) {
+            catalogCache.productChanged(productId);
+        }
+    }
+
+    @Async("imageRenditionExecutor")
+    public void renderVariantImage(Long productId, Long variantId, String imageUrl) {
+        ImageRenditions renditions = render(imageUrl);
+        if (renditions != null && productVariantRepository.updateImageRenditions(variantId, imageUrl,
+                renditions.getThumbnailUrl(), renditions.getCardUrl(), renditions.getDetailUrl()) > 0) {
+            catalogCache.productChanged(productId);
+        }
+    }
+
+    // Writes all renditions of an uploaded image; null if it is missing or not a decodable image
+    ImageRenditions render(String imageUrl) {
+        Path source = resolve(imageUrl);
+        if (source == null || !Files.isRegularFile(source)) {
+            return null;
+        }
+        long start = System.nanoTime();
+        try {
+            String baseName = source.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+            Path dir = uploadDir.resolve(RENDITION_DIR);
+            ImageRenditions existing = existing(dir, baseName);
+            if (existing != null) {
+                return existing; // Same content uploaded before, so the renditions are already there
+            }
+            BufferedImage image = read(source);
+            if (image == null) {
+                log.info("Skipping renditions for {}: not a decodable image", imageUrl);
+                return null;
+            }
+            Files.createDirectories(dir);
+
+            // Largest first, each scaled from the previous one: cheaper, and no visible quality loss
+            String[] urls = new String[Size.values().length];
+            for (int i = Size.values().length - 1; i >= 0; i--) {
+                Size size = Size.values()[i];
+                image = fitWithin(image, size.maxEdge);
+                String fileName = baseName + "-" + size.suffix + ".jpg";
+                writeJpeg(image, dir.resolve(fileName));
+                urls[i] = URL_PREFIX + RENDITION_DIR + "/" + fileName;
+            }
+            log.debug("Rendered {} in {} ms", imageUrl, (System.nanoTime() - start) / 1_000_000);
+            return new ImageRenditions(urls[Size.THUMBNAIL.ordinal()], urls[Size.CARD.ordinal()], urls[Size.DETAIL.ordinal()]);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to render {}: {}", imageUrl, e.toString());
+            return null;
+        }
+    }
+
+    private static ImageRenditions existing(Path dir, String baseName) {
+        String[] urls = new String[Size.values().length];
+        for (Size size : Size.values()) {
+            String fileName = baseName + "-" + size.suffix + ".jpg";
+            if (!Files.isRegularFile(dir.resolve(fileName))) {
+                return null;
+            }
+            urls[size.ordinal()] = URL_PREFIX + RENDITION_DIR + "/" + fileName;
+        }
+        return new ImageRenditions(urls[Size.THUMBNAIL.ordinal()], urls[Size.CARD.ordinal()], urls[Size.DETAIL.ordinal()]);
+    }
+
+    // "uploads/x.png" -> <upload-dir>/x.png; anything outside the upload directory is ignored
+    private Path resolve(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        Path path = uploadDir.resolve(imageUrl.substring(URL_PREFIX.length())).normalize();
+        return path.startsWith(uploadDir) ? path : null;
+    }
+
+    // Decodes with source subsampling when the original is far larger than the biggest rendition
+    private static BufferedImage read(Path source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    throw new IOException("image too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (Size.DETAIL.maxEdge * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Scales down (never up) to fit a maxEdge square, flattening transparency onto white.
+    // Halves repeatedly first: a single bilinear pass over a large ratio looks jagged.
+    static BufferedImage fitWithin(BufferedImage image, int maxEdge) {
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != targetWidth || current.getHeight() != targetHeight
+                || current.getType() != BufferedImage.TYPE_INT_RGB) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    // Progressive JPEG at the configured quality, written to a temp file and moved into place
+    // so the resource handler never serves a half-written rendition
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,267 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import io.github.ynadyana.inventory_backend.product.repository.ProductVariantRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed upload storage: a file is named after the SHA-256 of its bytes
+ * ("uploads/3f5a...c1.jpg"), so identical uploads share one file and a URL never changes
+ * content. That is what lets /uploads be served as immutable (see UploadsConfig).
+ *
+ * Uploads are written in parallel on the bounded "imageUploadExecutor" pool, each streamed from
+ * the multipart temp file to a temp file here while hashing, then renamed into place. This all
+ * happens before the caller opens the transaction that records the URLs, so no connection is
+ * held during disk I/O. Stored files are never overwritten. The only deletes are files a batch
+ * created whose transaction then failed, and only if no row references them and no other
+ * upload of the same bytes is still in flight.
+ */
+@Component
+@Slf4j
+public class ImageStore {
+
+    public static final String URL_PREFIX = "uploads/";
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+    // 128 bits of the digest: collisions are not a practical concern, URLs stay short
+    private static final int NAME_BYTES = 16;
+
+    private final Path uploadDir;
+    private final Executor uploadExecutor;
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    // File name -> open batches holding it. inFlightLock guards it, moving files into place and deleting them.
+    private final Map<String, Integer> inFlight = new HashMap<>();
+    // Files a failed batch is checking for references; an upload of the same bytes meanwhile claims them back
+    private final Set<String> releasing = new HashSet<>();
+    private final ReentrantLock inFlightLock = new ReentrantLock();
+    private final DistributionSummary uploadBytes;
+    private final Timer newFileWrites;
+    private final Timer duplicateWrites;
+
+    public ImageStore(@Value("${file.upload-dir}") String uploadDir,
+                      @Qualifier("imageUploadExecutor") Executor uploadExecutor,
+                      ProductRepository productRepository,
+                      ProductVariantRepository productVariantRepository,
+                      MeterRegistry meterRegistry) {
+        this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.uploadExecutor = uploadExecutor;
+        this.productRepository = productRepository;
+        this.productVariantRepository = productVariantRepository;
+        this.uploadBytes = DistributionSummary.builder("images.upload.size").baseUnit("bytes").register(meterRegistry);
+        // Per file, hashing and writing included; "duplicate" means the bytes were already stored
+        this.newFileWrites = Timer.builder("images.upload").tag("result", "stored").register(meterRegistry);
+        this.duplicateWrites = Timer.builder("images.upload").tag("result", "duplicate").register(meterRegistry);
+    }
+
+    /**
+     * Stores all files and waits for them. Use as try-with-resources around the transaction
+     * that records batch.urls(), calling committed() once it has: closing an uncommitted batch
+     * removes the files only it brought into existence.
+     */
+    public Batch storeAll(List<MultipartFile> files) {
+        List<CompletableFuture<Stored>> writes = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> write(file), uploadExecutor))
+                .toList();
+        Batch batch = new Batch();
+        RuntimeException failure = null;
+        // Wait for every write, even after a failure, so the batch knows all files it created
+        for (CompletableFuture<Stored> write : writes) {
+            try {
+                batch.stored.add(write.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+        if (failure != null) {
+            batch.close();
+            throw failure;
+        }
+        return batch;
+    }
+
+    private Stored write(MultipartFile file) {
+        // Tomcat has already spooled the part to disk, so this streams from its temp file
+        try (InputStream in = file.getInputStream()) {
+            return write(in, file.getOriginalFilename());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save image", e);
+        }
+    }
+
+    private Stored write(InputStream in, String originalFilename) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(uploadDir);
+        Path temp = Files.createTempFile(uploadDir, ".upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long bytes;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                bytes = in.transferTo(out);
+            }
+            String fileName = HexFormat.of().formatHex(digest.digest(), 0, NAME_BYTES) + extension(originalFilename);
+            Path target = uploadDir.resolve(fileName);
+            boolean created;
+            inFlightLock.lock();
+            try {
+                created = !Files.exists(target);
+                if (created) {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+                inFlight.merge(fileName, 1, Integer::sum);
+                releasing.remove(fileName);
+            } finally {
+                inFlightLock.unlock();
+            }
+            if (!created) {
+                log.debug("Upload {} already stored as {}", originalFilename, fileName);
+            }
+            uploadBytes.record(bytes);
+            (created ? newFileWrites : duplicateWrites).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return new Stored(fileName, created);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void release(List<Stored> batch, boolean committed) {
+        List<String> candidates;
+        inFlightLock.lock();
+        try {
+            for (Stored stored : batch) {
+                if (inFlight.merge(stored.fileName(), -1, Integer::sum) == 0) {
+                    inFlight.remove(stored.fileName());
+                }
+            }
+            if (committed) {
+                return;
+            }
+            candidates = batch.stream()
+                    .filter(Stored::created)
+                    .map(Stored::fileName)
+                    .filter(fileName -> !inFlight.containsKey(fileName))
+                    .distinct()
+                    .toList();
+            releasing.addAll(candidates);
+        } finally {
+            inFlightLock.unlock();
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // One query per file, so outside the lock that every upload takes
+        List<String> unreferenced = candidates.stream()
+                .filter(fileName -> !isReferenced(URL_PREFIX + fileName))
+                .toList();
+
+        inFlightLock.lock();
+        try {
+            // A concurrent upload of the same bytes either registered since the check (claimed, so
+            // kept, even if its row committed after the query) or will find the file gone and write it again
+            candidates.stream()
+                    .filter(releasing::remove)
+                    .filter(unreferenced::contains)
+                    .filter(fileName -> !inFlight.containsKey(fileName))
+                    .forEach(this::delete);
+        } finally {
+            inFlightLock.unlock();
+        }
+    }
+
+    private void delete(String fileName) {
+        try {
+            Files.deleteIfExists(uploadDir.resolve(fileName));
+            log.debug("Removed {} after its transaction failed", fileName);
+        } catch (IOException e) {
+            log.warn("Could not remove orphaned upload {}: {}", fileName, e.toString());
+        }
+    }
+
+    // Checked only after a failed transaction, so the queries stay off the normal path
+    boolean isReferenced(String url) {
+        return productRepository.existsByImageUrl(url) || productVariantRepository.existsByImageUrlOrAlbumImage(url);
+    }
+
+    // ".jpg" from "Photo 1.JPG"; empty when missing or unusual, so nothing odd reaches the path
+    static String extension(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        String extension = dot >= 0 ? originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+        if (extension.equals("jpeg")) {
+            extension = "jpg";
+        }
+        return EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record Stored(String fileName, boolean created) {
+    }
+
+    // Files of one request, in the order given to storeAll
+    public final class Batch implements AutoCloseable {
+
+        private final List<Stored> stored = new ArrayList<>();
+        private boolean committed;
+        private boolean closed;
+
+        public List<String> urls() {
+            return stored.stream().map(s -> URL_PREFIX + s.fileName()).toList();
+        }
+
+        public void committed() {
+            committed = true;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(stored, committed);
+            }
+        }
+    }
+}
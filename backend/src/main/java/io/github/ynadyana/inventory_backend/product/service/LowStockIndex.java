@@ -0,0 +1,319 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.dto.LowStockItem;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory watch list of active products (summed over their variants) and variants whose
+ * stock is at or below app.low-stock.threshold, kept sorted lowest-stock first.
+ *
+ * Loaded once at startup, then maintained from every stock write (checkout deductions and
+ * admin edits) after the writing transaction commits. Writers serialize on one lock, which is
+ * never held across a database call; readers page straight off the skip lists without locking.
+ */
+@Component
+@Slf4j
+public class LowStockIndex {
+
+    private static final Comparator<LowStockItem> LOWEST_FIRST = Comparator.comparingInt(LowStockItem::stock)
+            .thenComparing(LowStockItem::productId)
+            .thenComparing(item -> item.variantId() != null ? item.variantId() : 0L);
+
+    private final ProductRepository productRepository;
+    private final int threshold;
+    // Serializes writers
+    private final ReentrantLock lock = new ReentrantLock();
+    // One reload at a time
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    // Changes applied while a reload's query runs, replayed onto its snapshot; null otherwise
+    private List<Runnable> duringReload;
+
+    private final Map<Long, ProductEntry> products = new HashMap<>();
+    private final Map<Long, VariantEntry> variants = new HashMap<>();
+    private final ConcurrentSkipListSet<LowStockItem> lowProducts = new ConcurrentSkipListSet<>(LOWEST_FIRST);
+    private final ConcurrentSkipListSet<LowStockItem> lowVariants = new ConcurrentSkipListSet<>(LOWEST_FIRST);
+    // ConcurrentSkipListSet.size() walks the whole list, so the totals are tracked separately
+    private volatile int lowProductCount;
+    private volatile int lowVariantCount;
+
+    public LowStockIndex(ProductRepository productRepository,
+                         @Value("${app.low-stock.threshold}") int threshold) {
+        this.productRepository = productRepository;
+        this.threshold = threshold;
+    }
+
+    public Page<LowStockItem> products(int page, int size) {
+        return page(lowProducts, lowProductCount, page, size);
+    }
+
+    public Page<LowStockItem> variants(int page, int size) {
+        return page(lowVariants, lowVariantCount, page, size);
+    }
+
+    // --- Write hooks (applied once the current transaction commits) ---
+
+    // Checkout deduction: the new stock is not read back, so apply the delta
+    public void stockDeducted(Long variantId, int quantity) {
+        afterCommit(() -> write(() -> adjust(variantId, -quantity)));
+    }
+
+    public void variantChanged(ProductVariant variant) {
+        ProductSnapshot product = ProductSnapshot.of(variant.getProduct());
+        VariantSnapshot snapshot = VariantSnapshot.of(variant);
+        afterCommit(() -> write(() -> {
+            putProduct(product);
+            putVariant(snapshot);
+        }));
+    }
+
+    public void variantRemoved(Long variantId) {
+        afterCommit(() -> write(() -> removeVariant(variantId)));
+    }
+
+    // Product created, renamed, (de)activated or re-imaged
+    public void productChanged(Product product) {
+        ProductSnapshot snapshot = ProductSnapshot.of(product);
+        List<VariantSnapshot> variantSnapshots = product.getVariants().stream().map(VariantSnapshot::of).toList();
+        afterCommit(() -> write(() -> {
+            putProduct(snapshot);
+            variantSnapshots.forEach(this::putVariant);
+        }));
+    }
+
+    // Rebuilds everything from the database. The query runs without the writer lock, so stock
+    // hooks keep applying meanwhile; they are also recorded and replayed onto the new snapshot.
+    // As with any after-commit hook, a change that committed just before the query but is
+    // hooked after it started is counted in both.
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        reloadLock.lock();
+        try {
+            locked(() -> duringReload = new ArrayList<>());
+            List<ProductRepository.StockRow> rows;
+            try {
+                rows = productRepository.findAllStockRows();
+            } catch (RuntimeException e) {
+                locked(() -> duringReload = null);
+                throw e;
+            }
+            locked(() -> {
+                List<Runnable> changes = duringReload;
+                duringReload = null;
+                load(rows);
+                changes.forEach(Runnable::run);
+            });
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void load(List<ProductRepository.StockRow> rows) {
+        products.clear();
+        variants.clear();
+        lowProducts.clear();
+        lowVariants.clear();
+        lowProductCount = 0;
+        lowVariantCount = 0;
+
+        for (ProductRepository.StockRow row : rows) {
+            putProduct(new ProductSnapshot(row.getProductId(), row.getProductName(), row.getProductSku(),
+                    row.getImageUrl(), Boolean.TRUE.equals(row.getActive())));
+            if (row.getVariantId() != null) {
+                putVariant(new VariantSnapshot(row.getVariantId(), row.getProductId(),
+                        label(row.getColorName(), row.getStorage()), row.getStock()));
+            }
+        }
+        log.info("Low-stock index loaded: {} products, {} variants ({} / {} at or below {})",
+                products.size(), variants.size(), lowProductCount, lowVariantCount, threshold);
+    }
+
+    private void adjust(Long variantId, int delta) {
+        VariantEntry variant = variants.get(variantId);
+        if (variant == null) {
+            return; // Not loaded yet; the next reload picks it up
+        }
+        ProductEntry product = products.get(variant.productId);
+        variant.stock += delta;
+        product.totalStock += delta;
+        relist(product);
+        relist(variant, product);
+    }
+
+    private void removeVariant(Long variantId) {
+        VariantEntry variant = variants.remove(variantId);
+        if (variant == null) {
+            return;
+        }
+        unlist(variant);
+        ProductEntry product = products.get(variant.productId);
+        product.variantIds.remove(variantId);
+        product.totalStock -= variant.stock;
+        relist(product);
+    }
+
+    private void write(Runnable change) {
+        locked(() -> {
+            change.run();
+            if (duringReload != null) {
+                duringReload.add(change);
+            }
+        });
+    }
+
+    private void locked(Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void putProduct(ProductSnapshot snapshot) {
+        ProductEntry product = products.computeIfAbsent(snapshot.id(), ProductEntry::new);
+        product.name = snapshot.name();
+        product.sku = snapshot.sku();
+        product.imageUrl = snapshot.imageUrl();
+        product.active = snapshot.active();
+        relist(product);
+        // Variant entries carry the product's name and visibility too
+        for (Long variantId : product.variantIds) {
+            relist(variants.get(variantId), product);
+        }
+    }
+
+    private void putVariant(VariantSnapshot snapshot) {
+        ProductEntry product = products.get(snapshot.productId());
+        VariantEntry variant = variants.computeIfAbsent(snapshot.id(), id -> new VariantEntry(id, snapshot.productId()));
+        product.totalStock += snapshot.stock() - variant.stock;
+        product.variantIds.add(variant.id);
+        variant.stock = snapshot.stock();
+        variant.label = snapshot.label();
+        relist(product);
+        relist(variant, product);
+    }
+
+    private void relist(ProductEntry product) {
+        if (product.listed != null) {
+            lowProducts.remove(product.listed);
+            product.listed = null;
+            lowProductCount--;
+        }
+        if (product.active && product.totalStock <= threshold) {
+            product.listed = new LowStockItem(product.id, null, product.name, product.sku, null,
+                    product.imageUrl, (int) product.totalStock);
+            lowProducts.add(product.listed);
+            lowProductCount++;
+        }
+    }
+
+    private void relist(VariantEntry variant, ProductEntry product) {
+        unlist(variant);
+        if (product.active && variant.stock <= threshold) {
+            variant.listed = new LowStockItem(product.id, variant.id, product.name, product.sku, variant.label,
+                    product.imageUrl, variant.stock);
+            lowVariants.add(variant.listed);
+            lowVariantCount++;
+        }
+    }
+
+    private void unlist(VariantEntry variant) {
+        if (variant.listed != null) {
+            lowVariants.remove(variant.listed);
+            variant.listed = null;
+            lowVariantCount--;
+        }
+    }
+
+    private static Page<LowStockItem> page(ConcurrentSkipListSet<LowStockItem> items, int total, int page, int size) {
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.max(size, 1));
+        List<LowStockItem> content = items.stream().skip(pageable.getOffset()).limit(pageable.getPageSize()).toList();
+        return new PageImpl<>(content, pageable, Math.max(total, content.size()));
+    }
+
+    // Same naming as the storefront: non-Standard parts joined by " - "
+    static String label(String colorName, String storage) {
+        boolean hasColor = colorName != null && !colorName.isBlank() && !colorName.trim().equalsIgnoreCase("standard");
+        boolean hasStorage = storage != null && !storage.isBlank();
+        if (hasColor && hasStorage) return colorName + " - " + storage;
+        if (hasColor) return colorName;
+        if (hasStorage) return storage;
+        return "Standard";
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record ProductSnapshot(Long id, String name, String sku, String imageUrl, boolean active) {
+        static ProductSnapshot of(Product p) {
+            return new ProductSnapshot(p.getId(), p.getName(), p.getSku(), p.getImageUrl(), p.isActive());
+        }
+    }
+
+    private record VariantSnapshot(Long id, Long productId, String label, int stock) {
+        static VariantSnapshot of(ProductVariant v) {
+            return new VariantSnapshot(v.getId(), v.getProduct().getId(), LowStockIndex.label(v.getColorName(), v.getStorage()),
+                    v.getStock() != null ? v.getStock() : 0);
+        }
+    }
+
+    private static final class ProductEntry {
+        final Long id;
+        final Set<Long> variantIds = new HashSet<>();
+        String name;
+        String sku;
+        String imageUrl;
+        boolean active;
+        long totalStock;
+        LowStockItem listed;
+
+        ProductEntry(Long id) {
+            this.id = id;
+        }
+    }
+
+    private static final class VariantEntry {
+        final Long id;
+        final Long productId;
+        String label;
+        int stock;
+        LowStockItem listed;
+
+        VariantEntry(Long id, Long productId) {
+            this.id = id;
+            this.productId = productId;
+        }
+    }
+}
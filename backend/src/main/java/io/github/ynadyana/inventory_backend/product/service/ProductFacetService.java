@@ -0,0 +1,67 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.dto.CatalogPage;
+import io.github.ynadyana.inventory_backend.product.dto.ProductFilter;
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import io.github.ynadyana.inventory_backend.product.repository.ProductSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Category and brand counts over active products, from two GROUP BY queries on products only
+ * (no variants or images are loaded). The result is cached until a product write invalidates it.
+ */
+@Service
+public class ProductFacetService {
+
+    private static final ProductFilter ACTIVE = new ProductFilter(null, null, null, null, null, false, true);
+
+    private final ProductRepository productRepository;
+    private final boolean cacheEnabled;
+
+    // Bumped on every invalidation; a result computed under an older generation is never served
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Cached cached;
+
+    private record Cached(long generation, CatalogPage.Facets facets) {}
+
+    public ProductFacetService(ProductRepository productRepository,
+                               @Value("${app.catalog-cache.categories.enabled}") boolean cacheEnabled) {
+        this.productRepository = productRepository;
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    @Transactional(readOnly = true)
+    public CatalogPage.Facets getFacets() {
+        long current = generation.get();
+        Cached snapshot = cached;
+        if (cacheEnabled && snapshot != null && snapshot.generation() == current) {
+            return snapshot.facets();
+        }
+        var spec = ProductSpecifications.matching(ACTIVE, null);
+        CatalogPage.Facets facets = new CatalogPage.Facets(
+                productRepository.countBy("category", spec),
+                productRepository.countBy("brand", spec));
+        cached = new Cached(current, facets);
+        return facets;
+    }
+
+    // Called by ProductService after a product is created, edited or deactivated
+    public void invalidate() {
+        generation.incrementAndGet();
+        // Again once the change is visible, in case a concurrent read re-cached the old counts
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+}
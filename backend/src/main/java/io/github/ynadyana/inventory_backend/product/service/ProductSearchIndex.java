@@ -0,0 +1,339 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded inverted index over product name, brand, category and description.
+ *
+ * Each query token matches indexed terms exactly, by prefix (so results follow keystrokes),
+ * or, when neither hits, within a small edit distance. A product must match every token;
+ * the score sums, per token, the best field weight times the match quality. Ties go to the
+ * newest product, like the unfiltered listing.
+ *
+ * Built at startup and kept current by ProductService after each product write commits.
+ * Writers serialize on this object; searches read the concurrent maps without locking. A rebuild
+ * loads its rows unlocked and replays the writes that landed meanwhile onto that snapshot.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final float NAME = 4f;
+    private static final float BRAND = 3f;
+    private static final float CATEGORY = 2f;
+    private static final float DESCRIPTION = 1f;
+
+    private static final float EXACT = 1f;
+    private static final float PREFIX = 0.7f;
+    private static final float FUZZY = 0.4f;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private volatile boolean ready;
+
+    // term -> (productId -> summed field weight); sorted so prefixes are a range scan
+    private final ConcurrentSkipListMap<String, Map<Long, Float>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Indexed> documents = new ConcurrentHashMap<>();
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Writes applied while a rebuild's query runs, replayed onto its snapshot; null otherwise
+    private List<Runnable> duringRebuild;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              @Value("${app.search.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+    }
+
+    public record Document(Long id, String name, String brand, String category, String description, boolean active) {
+        static Document of(Product p) {
+            return new Document(p.getId(), p.getName(), p.getBrand(), p.getCategory(), p.getDescription(), p.isActive());
+        }
+    }
+
+    private record Indexed(boolean active, Set<String> terms) {}
+
+    // False until the startup build finishes (or when disabled); callers fall back to SQL LIKE
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    // Best-first order: higher score, then newer (higher) id
+    private static final Comparator<Map.Entry<Long, Float>> RANKING = Map.Entry.<Long, Float>comparingByValue()
+            .thenComparing(Map.Entry.comparingByKey());
+
+    public record Hits(List<Long> ids, int total) {}
+
+    // The top `limit` matching ids, best first, plus how many products matched in total
+    public Hits search(String query, boolean activeOnly, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return new Hits(List.of(), 0);
+        }
+
+        List<TokenMatch> perToken = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            TokenMatch matches = match(token);
+            if (matches.size() == 0) {
+                return new Hits(List.of(), 0);
+            }
+            perToken.add(matches);
+        }
+        // Walk the rarest token's matches and probe the rest
+        perToken.sort(Comparator.comparingInt(TokenMatch::size));
+        TokenMatch rarest = perToken.get(0);
+
+        // Min-heap of the best `limit` so far: only the requested pages are ever ordered
+        PriorityQueue<Map.Entry<Long, Float>> top = new PriorityQueue<>(Math.min(limit, 1024) + 1, RANKING);
+        int total = 0;
+        candidates:
+        for (Map.Entry<Long, Float> entry : rarest.weights().entrySet()) {
+            Long id = entry.getKey();
+            if (activeOnly) {
+                Indexed doc = documents.get(id);
+                if (doc == null || !doc.active()) continue;
+            }
+            float score = entry.getValue() * rarest.quality();
+            for (int i = 1; i < perToken.size(); i++) {
+                Float s = perToken.get(i).score(id);
+                if (s == null) continue candidates;
+                score += s;
+            }
+            total++;
+            if (top.size() < limit) {
+                top.offer(Map.entry(id, score));
+            } else if (beats(score, id, top.peek())) {
+                top.poll();
+                top.offer(Map.entry(id, score));
+            }
+        }
+
+        Long[] ids = new Long[top.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = top.poll().getKey();
+        }
+        return new Hits(List.of(ids), total);
+    }
+
+    private static boolean beats(float score, Long id, Map.Entry<Long, Float> worst) {
+        int byScore = Float.compare(score, worst.getValue());
+        return byScore > 0 || (byScore == 0 && id > worst.getKey());
+    }
+
+    // --- Maintenance ---
+
+    public void productChanged(Product product) {
+        Document document = Document.of(product);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(document);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(document);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            synchronized (this) {
+                duringRebuild = new ArrayList<>();
+            }
+            List<ProductRepository.SearchRow> rows;
+            try {
+                rows = productRepository.findAllSearchRows();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    duringRebuild = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                List<Runnable> writes = duringRebuild;
+                duringRebuild = null;
+                postings.clear();
+                documents.clear();
+                for (ProductRepository.SearchRow row : rows) {
+                    index(new Document(row.getId(), row.getName(), row.getBrand(), row.getCategory(),
+                            row.getDescription(), Boolean.TRUE.equals(row.getActive())));
+                }
+                writes.forEach(Runnable::run);
+            }
+            ready = true;
+            log.info("Product search index built: {} products, {} terms in {} ms",
+                    documents.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public synchronized void put(Document document) {
+        write(() -> index(document));
+    }
+
+    public synchronized void remove(Long id) {
+        write(() -> unindex(id));
+    }
+
+    // Caller holds this object's monitor
+    private void write(Runnable change) {
+        change.run();
+        if (duringRebuild != null) {
+            duringRebuild.add(change);
+        }
+    }
+
+    private void index(Document document) {
+        unindex(document.id());
+
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, document.name(), NAME);
+        addField(weights, document.brand(), BRAND);
+        addField(weights, document.category(), CATEGORY);
+        addField(weights, document.description(), DESCRIPTION);
+
+        weights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(document.id(), weight));
+        documents.put(document.id(), new Indexed(document.active(), weights.keySet()));
+    }
+
+    private void unindex(Long id) {
+        Indexed previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Map<Long, Float> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) postings.remove(term);
+            }
+        }
+    }
+
+    // --- Matching ---
+
+    // Weighted postings matched by one query token; quality is applied when scoring
+    private record TokenMatch(Map<Long, Float> weights, float quality) {
+        static final TokenMatch NONE = new TokenMatch(Map.of(), 1f);
+
+        int size() {
+            return weights.size();
+        }
+
+        Float score(Long id) {
+            Float weight = weights.get(id);
+            return weight != null ? weight * quality : null;
+        }
+    }
+
+    private TokenMatch match(String token) {
+        List<TokenMatch> parts = new ArrayList<>();
+        Map<Long, Float> exact = postings.get(token);
+        if (exact != null) parts.add(new TokenMatch(exact, EXACT));
+        // Every longer term starting with the token: "iph" -> "iphone"
+        for (Map<Long, Float> ids : postings.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+            parts.add(new TokenMatch(ids, PREFIX));
+        }
+
+        if (parts.isEmpty()) {
+            int maxEdits = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+            if (maxEdits == 0) {
+                return TokenMatch.NONE;
+            }
+            // Typos rarely hit the first character, so only terms sharing it are compared
+            String first = token.substring(0, 1);
+            for (Map.Entry<String, Map<Long, Float>> e : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                String term = e.getKey();
+                if (Math.abs(term.length() - token.length()) <= maxEdits && withinDistance(token, term, maxEdits)) {
+                    parts.add(new TokenMatch(e.getValue(), FUZZY));
+                }
+            }
+        }
+
+        if (parts.isEmpty()) return TokenMatch.NONE;
+        // Usual case: a single term, scored straight off its postings without copying
+        if (parts.size() == 1) return parts.get(0);
+        Map<Long, Float> best = new HashMap<>();
+        for (TokenMatch part : parts) {
+            part.weights().forEach((id, weight) -> best.merge(id, weight * part.quality(), Math::max));
+        }
+        return new TokenMatch(best, 1f);
+    }
+
+    // Levenshtein distance <= max, abandoning a row as soon as it cannot get back under max
+    static boolean withinDistance(String a, String b, int max) {
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            int rowMin = curr[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, curr[j]);
+            }
+            if (rowMin > max) return false;
+            int[] swap = prev;
+            prev = curr;
+            curr = swap;
+        }
+        return prev[b.length()] <= max;
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float weight) {
+        // A term counts once per field, however often it repeats there
+        for (String term : new LinkedHashSet<>(tokenize(text))) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    // "Café Noir 512GB" -> [cafe, noir, 512gb]
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+}
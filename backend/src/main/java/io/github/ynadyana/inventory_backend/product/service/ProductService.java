@@ -1,26 +1,39 @@
 package io.github.ynadyana.inventory_backend.product.service;
 
+import io.github.ynadyana.inventory_backend.product.dto.CatalogPage;
+import io.github.ynadyana.inventory_backend.product.dto.ProductFilter;
 import io.github.ynadyana.inventory_backend.product.dto.ProductRequest;
+import io.github.ynadyana.inventory_backend.product.dto.ProductSummary;
 import io.github.ynadyana.inventory_backend.product.model.Product;
 import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
 import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import io.github.ynadyana.inventory_backend.product.repository.ProductSpecifications;
 import io.github.ynadyana.inventory_backend.product.repository.ProductVariantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,7 +43,20 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductVariantRepository productVariantRepository;
-    private final String UPLOAD_DIR = "uploads/";
+    private final StockService stockService;
+    private final VariantIndex variantIndex;
+    private final LowStockIndex lowStockIndex;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetService productFacetService;
+    private final CatalogCache catalogCache;
+    private final ImageRenditionService imageRenditionService;
+    private final ImageStore imageStore;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    // "catalog.list" per filter type and facets flag, registered on first use
+    private final Map<ListShape, Timer> listTimers = new ConcurrentHashMap<>();
+    // Best search matches that are then combined with the other filters
+    private static final int MAX_SEARCH_MATCHES = 1000;
 
     // 1. Create Product
     @Transactional
@@ -71,17 +97,28 @@ public class ProductService {
             product.setVariants(List.of(standard));
         }
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        lowStockIndex.productChanged(saved);
+        catalogCache.productChanged(saved.getId());
+        productSearchIndex.productChanged(saved);
+        productFacetService.invalidate();
+        renderImages(saved);
+        return saved;
     }
 
     // 2. Create Product With Image
-    @Transactional
+    // The file is written before the transaction opens, so no connection waits on disk I/O
     public Product createProductWithImage(String sku, String name, BigDecimal price, Integer stock, String category, String brand, MultipartFile image) {
-        String imageUrl = null;
-        if (image != null && !image.isEmpty()) {
-            imageUrl = saveImage(image);
+        try (ImageStore.Batch upload = imageStore.storeAll(uploads(image, null))) {
+            String imageUrl = upload.urls().isEmpty() ? null : upload.urls().get(0);
+            Product saved = transactionTemplate.execute(status ->
+                    saveProductWithImage(sku, name, price, stock, category, brand, imageUrl));
+            upload.committed();
+            return saved;
         }
+    }
 
+    private Product saveProductWithImage(String sku, String name, BigDecimal price, Integer stock, String category, String brand, String imageUrl) {
         Product product = Product.builder()
                 .sku(sku != null ? sku : "SKU-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase())
                 .name(name)
@@ -100,12 +137,30 @@ public class ProductService {
         standard.setProduct(product);
         product.setVariants(List.of(standard));
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        lowStockIndex.productChanged(saved);
+        catalogCache.productChanged(saved.getId());
+        productSearchIndex.productChanged(saved);
+        productFacetService.invalidate();
+        renderImages(saved);
+        return saved;
     }
 
     // 3. Add Variant
-    @Transactional
+    // Image and album are written in parallel before the short transaction that records them
     public ProductVariant addVariant(Long productId, ProductRequest.VariantDto dto, MultipartFile imageFile, List<MultipartFile> albumImages) {
+        boolean hasImage = imageFile != null && !imageFile.isEmpty();
+        try (ImageStore.Batch upload = imageStore.storeAll(uploads(imageFile, albumImages))) {
+            List<String> urls = upload.urls();
+            String imageUrl = hasImage ? urls.get(0) : null;
+            List<String> albumUrls = urls.subList(hasImage ? 1 : 0, urls.size());
+            ProductVariant saved = transactionTemplate.execute(status -> saveNewVariant(productId, dto, imageUrl, albumUrls));
+            upload.committed();
+            return saved;
+        }
+    }
+
+    private ProductVariant saveNewVariant(Long productId, ProductRequest.VariantDto dto, String imageUrl, List<String> albumUrls) {
         Product product = getProductById(productId);
         ProductVariant v = new ProductVariant();
         v.setProduct(product);
@@ -116,21 +171,34 @@ public class ProductService {
         v.setSku(dto.getSku());
         v.setStock(dto.getStock());
 
-        if (imageFile != null && !imageFile.isEmpty()) {
-            v.setImageUrl(saveImage(imageFile));
-        }
+        v.setImageUrl(imageUrl);
 
-        if (albumImages != null && !albumImages.isEmpty()) {
-            List<String> urls = albumImages.stream().map(this::saveImage).collect(Collectors.toList());
-            v.setAlbumImages(urls);
+        if (!albumUrls.isEmpty()) {
+            v.setAlbumImages(new ArrayList<>(albumUrls));
         }
 
-        return productVariantRepository.save(v);
+        ProductVariant saved = productVariantRepository.save(v);
+        variantIndex.invalidate(productId);
+        lowStockIndex.variantChanged(saved);
+        catalogCache.productChanged(saved.getProduct().getId());
+        renderImage(saved);
+        return saved;
     }
 
     // 4. Update Variant
-    @Transactional
     public ProductVariant updateVariant(Long variantId, ProductRequest.VariantDto dto, MultipartFile imageFile, List<MultipartFile> albumImages) {
+        boolean hasImage = imageFile != null && !imageFile.isEmpty();
+        try (ImageStore.Batch upload = imageStore.storeAll(uploads(imageFile, albumImages))) {
+            List<String> urls = upload.urls();
+            String imageUrl = hasImage ? urls.get(0) : null;
+            List<String> albumUrls = urls.subList(hasImage ? 1 : 0, urls.size());
+            ProductVariant saved = transactionTemplate.execute(status -> saveVariantChanges(variantId, dto, imageUrl, albumUrls));
+            upload.committed();
+            return saved;
+        }
+    }
+
+    private ProductVariant saveVariantChanges(Long variantId, ProductRequest.VariantDto dto, String imageUrl, List<String> albumUrls) {
         ProductVariant v = productVariantRepository.findById(variantId)
                 .orElseThrow(() -> new RuntimeException("Variant not found"));
         
@@ -142,8 +210,9 @@ public class ProductService {
         v.setStock(dto.getStock());
 
         // Update Main Image if provided
-        if (imageFile != null && !imageFile.isEmpty()) {
-            v.setImageUrl(saveImage(imageFile));
+        if (imageUrl != null) {
+            v.setImageUrl(imageUrl);
+            v.setImageRenditions(null);
         }
 
         // Handle Album Images:
@@ -153,12 +222,15 @@ public class ProductService {
         }
 
         // 2. Append new uploads
-        if (albumImages != null && !albumImages.isEmpty()) {
-            List<String> newUrls = albumImages.stream().map(this::saveImage).collect(Collectors.toList());
-            v.getAlbumImages().addAll(newUrls);
-        }
+        v.getAlbumImages().addAll(albumUrls);
 
-        return productVariantRepository.save(v);
+        ProductVariant saved = productVariantRepository.save(v);
+        stockService.stockChanged(saved.getId(), saved.getStock());
+        variantIndex.invalidate(v.getProduct().getId());
+        lowStockIndex.variantChanged(saved);
+        catalogCache.productChanged(saved.getProduct().getId());
+        renderImage(saved);
+        return saved;
     }
 
     // 5. Update Stock
@@ -167,33 +239,118 @@ public class ProductService {
         ProductVariant v = productVariantRepository.findById(variantId)
                 .orElseThrow(() -> new RuntimeException("Variant not found"));
         v.setStock(newStock);
-        return productVariantRepository.save(v);
+        ProductVariant saved = productVariantRepository.save(v);
+        stockService.stockChanged(saved.getId(), saved.getStock());
+        lowStockIndex.variantChanged(saved);
+        catalogCache.productChanged(saved.getProduct().getId());
+        return saved;
     }
 
     // 6. Delete Variant
     @Transactional
     public void deleteVariant(Long variantId) {
-        if(!productVariantRepository.existsById(variantId)) throw new RuntimeException("Variant not found");
-        productVariantRepository.deleteById(variantId);
+        ProductVariant v = productVariantRepository.findById(variantId)
+                .orElseThrow(() -> new RuntimeException("Variant not found"));
+        productVariantRepository.delete(v);
+        variantIndex.invalidate(v.getProduct().getId());
+        stockService.variantRemoved(variantId);
+        lowStockIndex.variantRemoved(variantId);
+        catalogCache.productChanged(v.getProduct().getId());
     }
 
     // --- UTILS ---
-    public Page<Product> getAllProducts(String search, String category, String brand, boolean activeOnly, Pageable pageable) {
-        if (activeOnly) {
-            if (search != null && !search.isEmpty()) return productRepository.findByNameContainingIgnoreCaseAndActiveTrue(search, pageable);
-            if (brand != null && !brand.isEmpty()) return productRepository.findByBrandAndActiveTrue(brand, pageable); 
-            if (category != null && !category.isEmpty()) return productRepository.findByCategoryAndActiveTrue(category, pageable);
-            return productRepository.findByActiveTrue(pageable);
+    // One query path for every combination of filters; search ranking comes from the search index
+    // Timed per kind of filter ("catalog.list"), cache hits included, so each shape's latency stays visible
+    public CatalogPage getAllProducts(ProductFilter filter, Pageable pageable, boolean withFacets) {
+        return listTimers.computeIfAbsent(new ListShape(filterType(filter), withFacets), this::listTimer)
+                .record(() -> catalogCache.page(filter, pageable, withFacets, () -> loadCatalogPage(filter, pageable, withFacets)));
+    }
+
+    private record ListShape(String filter, boolean facets) {}
+
+    private Timer listTimer(ListShape shape) {
+        return Timer.builder("catalog.list")
+                .tag("filter", shape.filter())
+                .tag("facets", Boolean.toString(shape.facets()))
+                .register(meterRegistry);
+    }
+
+    // search > filtered > all: a handful of tag values, whatever the request contains
+    private static String filterType(ProductFilter filter) {
+        if (filter.hasSearch()) {
+            return "search";
+        }
+        return hasNonSearchFilters(filter) ? "filtered" : "all";
+    }
+
+    private CatalogPage loadCatalogPage(ProductFilter filter, Pageable pageable, boolean withFacets) {
+        boolean useIndex = filter.hasSearch() && productSearchIndex.isReady();
+        boolean relevanceOrder = useIndex && pageable.getSort().isUnsorted();
+
+        Page<ProductSummary> page;
+        List<Long> candidates = null;
+        if (relevanceOrder && !hasNonSearchFilters(filter) && !withFacets) {
+            // Search only: the index already applies the active flag, so page straight off its ranking
+            ProductSearchIndex.Hits hits = productSearchIndex.search(filter.search(), filter.activeOnly(),
+                    (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE));
+            page = loadPage(hits.ids(), hits.total(), pageable);
         } else {
-            if (search != null && !search.isEmpty()) return productRepository.findByNameContainingIgnoreCase(search, pageable);
-            if (brand != null && !brand.isEmpty()) return productRepository.findByBrand(brand, pageable); 
-            if (category != null && !category.isEmpty()) return productRepository.findByCategory(category, pageable);
-            return productRepository.findAll(pageable);
+            if (useIndex) {
+                candidates = productSearchIndex.search(filter.search(), filter.activeOnly(), MAX_SEARCH_MATCHES).ids();
+            }
+            Specification<Product> spec = ProductSpecifications.matching(filter, candidates);
+            if (relevanceOrder) {
+                // Keep the index's ranking, restricted to the products that pass the other filters
+                Set<Long> passing = candidates.isEmpty() ? Set.of() : new HashSet<>(productRepository.findIds(spec));
+                List<Long> ranked = candidates.stream().filter(passing::contains).toList();
+                page = loadPage(ranked, ranked.size(), pageable);
+            } else {
+                page = productRepository.findSummaries(spec, pageable);
+            }
         }
+
+        CatalogPage.Facets facets = null;
+        if (withFacets) {
+            // Each facet ignores its own filter so the alternatives keep their counts
+            facets = new CatalogPage.Facets(
+                    productRepository.countBy("category", ProductSpecifications.matching(filter.withoutCategory(), candidates)),
+                    productRepository.countBy("brand", ProductSpecifications.matching(filter.withoutBrand(), candidates)));
+        }
+        return CatalogPage.of(page, facets);
+    }
+
+    private static boolean hasNonSearchFilters(ProductFilter filter) {
+        return (filter.category() != null && !filter.category().isBlank())
+                || (filter.brand() != null && !filter.brand().isBlank())
+                || filter.minPrice() != null || filter.maxPrice() != null || filter.inStockOnly();
+    }
+
+    // Loads only the requested slice of ranked ids (stock and prices aggregated in the same query), keeping their order
+    private Page<ProductSummary> loadPage(List<Long> rankedIds, long total, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(from, (int) Math.min(pageable.getOffset() + pageable.getPageSize(), rankedIds.size()));
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        Map<Long, ProductSummary> byId = productRepository.findSummariesByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(ProductSummary::id, Function.identity()));
+        List<ProductSummary> content = pageIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(content, pageable, total);
     }
 
+    // Categories of active products, most populated first
     public List<String> getAllCategories() {
-        return productRepository.findAll().stream().map(Product::getCategory).distinct().collect(Collectors.toList());
+        return List.copyOf(productFacetService.getFacets().categories().keySet());
+    }
+
+    public CatalogPage.Facets getFacets() {
+        return productFacetService.getFacets();
+    }
+
+    // HTTP validators for the public catalog, answered from memory before anything is loaded
+    // Public product page: served from the catalog cache. Writes must use getProductById instead.
+    public Product getProductDetail(Long id) {
+        return catalogCache.product(id, () -> getProductById(id));
     }
 
     public Product getProductById(Long id) {
@@ -208,31 +365,80 @@ public class ProductService {
         product.setCategory(request.getCategory());
         product.setBrand(request.getBrand()); 
         product.setPrice(request.getPrice());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        lowStockIndex.productChanged(saved);
+        catalogCache.productChanged(saved.getId());
+        productSearchIndex.productChanged(saved);
+        productFacetService.invalidate();
+        return saved;
     }
 
     public void deactivateProduct(Long id) {
         Product product = getProductById(id);
         product.setActive(false);
-        productRepository.save(product);
+        Product saved = productRepository.save(product);
+        lowStockIndex.productChanged(saved);
+        catalogCache.productChanged(saved.getId());
+        productSearchIndex.productChanged(saved);
+        productFacetService.invalidate();
     }
 
     public Product uploadImage(Long id, MultipartFile file) {
         Product product = getProductById(id);
-        String fileName = saveImage(file);
-        product.setImageUrl(fileName);
-        return productRepository.save(product);
+        try (ImageStore.Batch upload = imageStore.storeAll(List.of(file))) {
+            product.setImageUrl(upload.urls().get(0));
+            product.setImageRenditions(null);
+            Product saved = productRepository.save(product);
+            upload.committed();
+            lowStockIndex.productChanged(saved);
+            catalogCache.productChanged(saved.getId());
+            renderImages(saved);
+            return saved;
+        }
     }
 
-    private String saveImage(MultipartFile file) {
-        try {
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            Path path = Paths.get(UPLOAD_DIR + fileName);
-            Files.createDirectories(path.getParent());
-            Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
-            return "uploads/" + fileName;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to save image", e);
+    // Queues renditions for any image that has none yet (new uploads, or ones an earlier attempt
+    // missed), once the rows referencing them have committed
+    private void renderImages(Product product) {
+        if (product.getImageUrl() != null && product.getImageRenditions() == null && imageRenditionService.isEnabled()) {
+            Long id = product.getId();
+            String imageUrl = product.getImageUrl();
+            afterCommit(() -> imageRenditionService.renderProductImage(id, imageUrl));
+        }
+        product.getVariants().forEach(this::renderImage);
+    }
+
+    private void renderImage(ProductVariant variant) {
+        if (variant.getImageUrl() != null && variant.getImageRenditions() == null && imageRenditionService.isEnabled()) {
+            Long productId = variant.getProduct().getId();
+            Long variantId = variant.getId();
+            String imageUrl = variant.getImageUrl();
+            afterCommit(() -> imageRenditionService.renderVariantImage(productId, variantId, imageUrl));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Non-empty parts only: the variant image first (if any), then the album in order
+    private static List<MultipartFile> uploads(MultipartFile image, List<MultipartFile> album) {
+        List<MultipartFile> files = new ArrayList<>();
+        if (image != null && !image.isEmpty()) {
+            files.add(image);
+        }
+        if (album != null) {
+            album.stream().filter(file -> !file.isEmpty()).forEach(files::add);
         }
+        return files;
     }
 }
\ No newline at end of file
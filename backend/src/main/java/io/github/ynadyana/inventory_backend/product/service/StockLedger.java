@@ -0,0 +1,355 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.model.StockLedgerCheckpoint;
+import io.github.ynadyana.inventory_backend.product.repository.ProductVariantRepository;
+import io.github.ynadyana.inventory_backend.product.repository.StockLedgerCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional in-memory stock reservation ledger (app.stock-ledger.enabled=true).
+ *
+ * Checkout reserves against lock-free per-variant counters instead of updating the
+ * product_variant row, and the accumulated deltas are flushed to the database in batches.
+ * Every reservation is appended to a write-ahead journal before it is acknowledged; on startup
+ * the journal is replayed past the checkpoint stored in the database and the counters are
+ * reconciled against ProductVariant.stock.
+ *
+ * Each flush seals the journal as "<journal-path>.<last sequence>" and starts a new one, and
+ * deletes sealed segments once their checkpoint has committed, so the journal on disk only ever
+ * covers deltas the database has not seen yet.
+ *
+ * A reservation journaled just before a crash whose order never committed is still replayed,
+ * so a crash can under-sell a few units but never oversell.
+ */
+@Service
+@ConditionalOnProperty(name = "app.stock-ledger.enabled", havingValue = "true")
+@Slf4j
+public class StockLedger {
+
+    private final ProductVariantRepository productVariantRepository;
+    private final StockLedgerCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Path journalFile;
+    private final boolean fsync;
+
+    // Variant id -> units still available for reservation
+    private final ConcurrentHashMap<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+    // Variant id -> units reserved but not yet written to product_variant.stock
+    private final ConcurrentHashMap<Long, AtomicInteger> pending = new ConcurrentHashMap<>();
+    // Variant id -> units swapped out by a flush whose transaction has not committed yet
+    private final Map<Long, Integer> inFlush = new HashMap<>();
+    // Reservations share the read lock; the flusher holds the write lock only while swapping out deltas
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    // One flush at a time: the scheduler and shutdown can overlap
+    private final ReentrantLock flushing = new ReentrantLock();
+    private final AtomicLong sequence = new AtomicLong();
+    // Highest sequence covered by a committed checkpoint
+    private long checkpointed;
+    // Orders journal appends by sequence; held through the write and fsync
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private FileChannel journal;
+
+    public StockLedger(ProductVariantRepository productVariantRepository,
+                       StockLedgerCheckpointRepository checkpointRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.stock-ledger.journal-path}") String journalPath,
+                       @Value("${app.stock-ledger.fsync}") boolean fsync) {
+        this.productVariantRepository = productVariantRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journalFile = Paths.get(journalPath).toAbsolutePath();
+        this.fsync = fsync;
+    }
+
+    @PostConstruct
+    void recover() throws IOException {
+        Files.createDirectories(journalFile.getParent());
+        List<Path> sealed = sealedSegments();
+
+        // 1. Replay journaled deltas the database has not seen yet
+        Long lastSequence = transactionTemplate.execute(status -> {
+            long applied = checkpointRepository.findById(StockLedgerCheckpoint.SINGLETON_ID)
+                    .map(StockLedgerCheckpoint::getLastSequence)
+                    .orElse(0L);
+            Map<Long, Integer> deltas = new HashMap<>();
+            long last = applied;
+            List<Path> segments = new ArrayList<>(sealed);
+            if (Files.exists(journalFile)) {
+                segments.add(journalFile);
+            }
+            for (Path segment : segments) {
+                try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.US_ASCII)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        // Records look like "seq variantId delta;" - a torn final write has no terminator
+                        if (!line.endsWith(";")) continue;
+                        String[] parts = line.substring(0, line.length() - 1).split(" ");
+                        long seq = Long.parseLong(parts[0]);
+                        if (seq <= applied) continue;
+                        deltas.merge(Long.parseLong(parts[1]), Integer.parseInt(parts[2]), Integer::sum);
+                        last = Math.max(last, seq);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read stock journal " + segment, e);
+                }
+            }
+            deltas.forEach(productVariantRepository::applyReservedStock);
+            saveCheckpoint(last);
+            if (!deltas.isEmpty()) {
+                log.warn("Stock ledger replayed {} unflushed variant deltas from {}", deltas.size(), journalFile);
+            }
+            return last;
+        });
+
+        // 2. Everything journaled is now in the database, so start a fresh journal
+        sequence.set(lastSequence);
+        checkpointed = lastSequence;
+        for (Path segment : sealed) {
+            Files.delete(segment);
+        }
+        journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        // 3. Reconcile counters against ProductVariant.stock
+        for (ProductVariantRepository.StockLevel level : productVariantRepository.findAllStockLevels()) {
+            available.put(level.getId(), new AtomicInteger(level.getStock()));
+        }
+        log.info("Stock ledger loaded {} variants", available.size());
+    }
+
+    public boolean tryReserve(Long variantId, int quantity) {
+        AtomicInteger counter = counterFor(variantId);
+        flushLock.readLock().lock();
+        try {
+            int current;
+            do {
+                current = counter.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!counter.compareAndSet(current, current - quantity));
+
+            try {
+                record(variantId, quantity);
+            } catch (UncheckedIOException e) {
+                counter.addAndGet(quantity);
+                throw e;
+            }
+            return true;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public void release(Long variantId, int quantity) {
+        flushLock.readLock().lock();
+        try {
+            record(variantId, -quantity);
+            counterFor(variantId).addAndGet(quantity);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    // Admin edits set the on-hand figure; reservations not yet in the database are still deducted
+    // from it, including a batch whose flush is committing right now. An edit that commits just
+    // after that flush but before it is cleared here deducts the batch twice, which undersells
+    // until the next edit or restart rather than overselling.
+    public void resync(Long variantId, int stock) {
+        flushLock.writeLock().lock();
+        try {
+            AtomicInteger unflushed = pending.get(variantId);
+            int reserved = (unflushed != null ? unflushed.get() : 0) + inFlush.getOrDefault(variantId, 0);
+            available.computeIfAbsent(variantId, id -> new AtomicInteger()).set(stock - reserved);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    public void evict(Long variantId) {
+        available.remove(variantId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock-ledger.flush-interval-ms}")
+    public void flush() {
+        flushing.lock();
+        try {
+            flushBatch();
+        } finally {
+            flushing.unlock();
+        }
+    }
+
+    private void flushBatch() {
+        Map<Long, Integer> batch = new HashMap<>();
+        long upTo;
+        flushLock.writeLock().lock();
+        try {
+            upTo = sequence.get();
+            if (upTo == checkpointed || !sealJournal(upTo)) {
+                return;
+            }
+            pending.forEach((id, delta) -> {
+                int value = delta.getAndSet(0);
+                if (value != 0) {
+                    batch.put(id, value);
+                    inFlush.merge(id, value, Integer::sum);
+                }
+            });
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+
+        boolean committed = commit(batch, upTo);
+        flushLock.writeLock().lock();
+        try {
+            batch.forEach((id, value) -> {
+                inFlush.merge(id, -value, (a, b) -> a + b == 0 ? null : a + b);
+                if (!committed) {
+                    // The sealed segments still cover these deltas, so retry them on the next flush
+                    pending.computeIfAbsent(id, k -> new AtomicInteger()).addAndGet(value);
+                }
+            });
+            if (committed) {
+                checkpointed = upTo;
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        if (committed) {
+            deleteSealedSegments(upTo);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    private AtomicInteger counterFor(Long variantId) {
+        return available.computeIfAbsent(variantId, id -> new AtomicInteger(
+                productVariantRepository.findStockById(id)
+                        .orElseThrow(() -> new RuntimeException("Variant not found: " + id))));
+    }
+
+    // Write-ahead: the delta is durable in the journal before it counts as pending
+    private void record(Long variantId, int delta) {
+        journalLock.lock();
+        try {
+            long seq = sequence.incrementAndGet();
+            byte[] line = (seq + " " + variantId + " " + delta + ";\n").getBytes(StandardCharsets.US_ASCII);
+            journal.write(ByteBuffer.wrap(line));
+            if (fsync) {
+                journal.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write stock journal", e);
+        } finally {
+            journalLock.unlock();
+        }
+        pending.computeIfAbsent(variantId, id -> new AtomicInteger()).addAndGet(delta);
+    }
+
+    private boolean commit(Map<Long, Integer> batch, long upTo) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batch.forEach(productVariantRepository::applyReservedStock);
+                saveCheckpoint(upTo);
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Stock ledger flush failed, will retry", e);
+            return false;
+        }
+    }
+
+    // Called under the flush write lock, so no reservation is mid-append
+    private boolean sealJournal(long upTo) {
+        journalLock.lock();
+        try {
+            journal.close();
+            Files.move(journalFile, segment(upTo));
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to seal stock journal, will retry", e);
+            return false;
+        } finally {
+            try {
+                journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                log.error("Failed to reopen stock journal", e);
+            }
+            journalLock.unlock();
+        }
+    }
+
+    private void deleteSealedSegments(long upTo) {
+        try {
+            for (Path segment : sealedSegments()) {
+                if (segmentSequence(segment) <= upTo) {
+                    Files.delete(segment);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete sealed stock journal segments", e);
+        }
+    }
+
+    private Path segment(long upTo) {
+        return journalFile.resolveSibling(journalFile.getFileName() + "." + upTo);
+    }
+
+    // Sealed segments in sequence order
+    private List<Path> sealedSegments() throws IOException {
+        String prefix = journalFile.getFileName() + ".";
+        try (Stream<Path> files = Files.list(journalFile.getParent())) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(prefix) && name.substring(prefix.length()).matches("\\d+");
+                    })
+                    .sorted(Comparator.comparingLong(this::segmentSequence))
+                    .toList();
+        }
+    }
+
+    private long segmentSequence(Path segment) {
+        return Long.parseLong(segment.getFileName().toString().substring(journalFile.getFileName().toString().length() + 1));
+    }
+
+    private void saveCheckpoint(long lastSequence) {
+        checkpointRepository.save(new StockLedgerCheckpoint(StockLedgerCheckpoint.SINGLETON_ID, lastSequence));
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.repository.ProductVariantRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+@RequiredArgsConstructor
+public class StockService {
+
+    private final ProductVariantRepository productVariantRepository;
+    private final ObjectProvider<StockLedger> stockLedger;
+    private final LowStockIndex lowStockIndex;
+
+    // Deducts stock with a single conditional UPDATE (no read-check-write),
+    // so concurrent checkouts can never oversell. Returns false if stock is too low.
+    // When the stock ledger is enabled, reserves in memory instead and lets the ledger flush.
+    @Transactional
+    public boolean tryDeduct(Long variantId, int quantity) {
+        if (quantity <= 0) {
+            throw new RuntimeException("Quantity must be greater than zero");
+        }
+
+        StockLedger ledger = stockLedger.getIfAvailable();
+        if (ledger == null) {
+            if (productVariantRepository.decrementStock(variantId, quantity) == 0) {
+                return false;
+            }
+        } else {
+            if (!ledger.tryReserve(variantId, quantity)) {
+                return false;
+            }
+            // Hand the units back if the surrounding order transaction rolls back
+            afterCompletion(false, () -> ledger.release(variantId, quantity));
+        }
+        lowStockIndex.stockDeducted(variantId, quantity);
+        return true;
+    }
+
+    // Called after an admin write to ProductVariant.stock
+    public void stockChanged(Long variantId, Integer newStock) {
+        stockLedger.ifAvailable(ledger ->
+                afterCompletion(true, () -> ledger.resync(variantId, newStock != null ? newStock : 0)));
+    }
+
+    public void variantRemoved(Long variantId) {
+        stockLedger.ifAvailable(ledger -> afterCompletion(true, () -> ledger.evict(variantId)));
+    }
+
+    private void afterCompletion(boolean onCommit, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == onCommit) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cached (productId, normalized variant key) -> variantId lookup used at checkout.
+ *
+ * Each variant is registered under every name a client may send ("Midnight - 512GB",
+ * "Midnight", "512GB" for a Standard-colored variant, "Standard"), its SKU and its id,
+ * so resolving a cart line is one hash lookup and never splits on " - ".
+ *
+ * Like CatalogCache, invalidation is by logical clock: ProductService stamps a product whenever its
+ * variants change (again once the change commits), and callers read stamp() before loading the
+ * products they resolve against. A map built from a product loaded before the product's latest
+ * stamp answers that one checkout but is never cached, so a checkout racing a variant write cannot
+ * leave the old variants in the index. A miss on a cached map is retried against the caller's product.
+ */
+@Component
+public class VariantIndex {
+
+    private static final String STANDARD = "standard";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<Long, Long> changedAt = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Entry> byProduct = new ConcurrentHashMap<>();
+
+    private record Entry(long loadedAt, Map<String, Long> keys) {}
+
+    // Read before loading the products later passed to resolve
+    public long stamp() {
+        return clock.get();
+    }
+
+    public Optional<Long> resolve(Product product, long loadedAt, Long variantId, String sku, String variantName) {
+        String key = key(variantId, sku, variantName);
+        Long productId = product.getId();
+        Entry cached = byProduct.get(productId);
+        if (cached != null && cached.loadedAt() >= changedAt(productId)) {
+            Long id = cached.keys().get(key);
+            if (id != null) {
+                return Optional.of(id);
+            }
+        }
+        // Nothing cached, a stale entry, or a miss that the caller's (possibly newer) product may answer
+        Entry built = new Entry(loadedAt, build(product));
+        if (loadedAt >= changedAt(productId)) {
+            byProduct.merge(productId, built, (old, fresh) -> fresh.loadedAt() >= old.loadedAt() ? fresh : old);
+        }
+        return Optional.ofNullable(built.keys().get(key));
+    }
+
+    public void invalidate(Long productId) {
+        changedAt.put(productId, clock.incrementAndGet());
+        byProduct.remove(productId);
+        // Stamp again once the change is visible: checkouts that loaded before it must not cache
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changedAt.put(productId, clock.incrementAndGet());
+                    byProduct.remove(productId);
+                }
+            });
+        }
+    }
+
+    private long changedAt(Long productId) {
+        return changedAt.getOrDefault(productId, 0L);
+    }
+
+    private static String key(Long variantId, String sku, String variantName) {
+        if (variantId != null) {
+            return "id:" + variantId;
+        }
+        if (sku != null && !sku.isBlank()) {
+            return "sku:" + normalize(sku);
+        }
+        return variantName == null || variantName.isBlank() ? STANDARD : normalize(variantName);
+    }
+
+    private Map<String, Long> build(Product product) {
+        Map<String, Long> keys = new HashMap<>();
+        for (ProductVariant v : product.getVariants()) {
+            Long id = v.getId();
+            String color = isBlankOrStandard(v.getColorName()) ? null : normalize(v.getColorName());
+            String storage = isBlankOrStandard(v.getStorage()) ? null : normalize(v.getStorage());
+
+            keys.put("id:" + id, id);
+            if (v.getSku() != null && !v.getSku().isBlank()) {
+                keys.putIfAbsent("sku:" + normalize(v.getSku()), id);
+            }
+
+            // Same composition as the storefront checkout: non-Standard parts joined by " - "
+            if (color != null && storage != null) {
+                keys.putIfAbsent(color + " - " + storage, id);
+                keys.putIfAbsent(color, id); // color only: first variant of that color
+            } else if (color != null) {
+                keys.putIfAbsent(color, id);
+            } else if (storage != null) {
+                keys.putIfAbsent(storage, id);
+                keys.putIfAbsent(STANDARD + " - " + storage, id);
+            }
+            if (color == null) {
+                keys.putIfAbsent(STANDARD, id);
+            }
+        }
+        return keys;
+    }
+
+    private static boolean isBlankOrStandard(String value) {
+        return value == null || value.isBlank() || value.trim().equalsIgnoreCase(STANDARD);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
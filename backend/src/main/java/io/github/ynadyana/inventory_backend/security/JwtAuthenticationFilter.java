@@ -1,29 +1,46 @@
 package io.github.ynadyana.inventory_backend.security;
 
+import io.github.ynadyana.inventory_backend.user.AppUser;
+import io.github.ynadyana.inventory_backend.user.AppUserCache;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
+@Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    private final AppUserCache userCache;
+    private final boolean stateless;
+    // Token verification as seen by requests: cache hits and full parses alike
+    private final Timer validTokens;
+    private final Timer invalidTokens;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, VerifiedTokenCache tokenCache, AppUserCache userCache,
+                                   @Value("${app.jwt.stateless}") boolean stateless, MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.tokenCache = tokenCache;
+        this.userCache = userCache;
+        this.stateless = stateless;
+        this.validTokens = Timer.builder("auth.jwt.parse").tag("outcome", "valid").register(meterRegistry);
+        this.invalidTokens = Timer.builder("auth.jwt.parse").tag("outcome", "invalid").register(meterRegistry);
     }
 
     @Override
@@ -35,7 +52,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
 
         // 1. Check if token exists
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -43,28 +59,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // 2. Try to parse the token safely
+        // 2. Parse (and verify signature + expiry) at most once; repeat tokens come from the cache
         try {
             jwt = authHeader.substring(7);
-            username = jwtService.extractUsername(jwt); 
+            Claims claims = verify(jwt);
+            String username = claims.getSubject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                // 3. Principal from signed claims; only legacy tokens or stateful mode hit the user cache/DB
+                AppUser user = stateless ? jwtService.toPrincipal(claims) : null;
+                if (user == null) {
+                    user = userCache.get(username);
                 }
+
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        user,
+                        null,
+                        user.getAuthorities()
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         } catch (Exception e) {
-            System.err.println("❌ JWT Filter Error: " + e.getMessage());
+            // The request carries on unauthenticated; the security rules decide whether that is allowed
+            log.debug("Ignoring bearer token: {}", e.getMessage());
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private Claims verify(String jwt) {
+        long start = System.nanoTime();
+        try {
+            Claims claims = tokenCache.verify(jwt);
+            validTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (RuntimeException e) {
+            invalidTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package io.github.ynadyana.inventory_backend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.github.ynadyana.inventory_backend.user.AppUser;
+import io.github.ynadyana.inventory_backend.user.Role;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,14 +25,68 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
-    @Value("${app.jwt.secret}")
-    private String secretKey;
+    // Claims that let the filter build the principal without a database lookup
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_NAME = "name";
 
-    @Value("${app.jwt.expiration-ms}")
-    private long jwtExpirationMs;
+    private final long jwtExpirationMs;
+
+    // Decoded once at startup; SecretKey and JwtParser are immutable and thread-safe
+    private final String currentKeyId;
+    private final SecretKey signingKey;
+    private final Map<String, SecretKey> verificationKeys = new HashMap<>();
+    private final JwtParser parser;
+
+    /**
+     * @param secretKey    Base64 HMAC secret used to sign new tokens
+     * @param keyId        "kid" header written on new tokens
+     * @param previousKeys verification-only keys still accepted during rotation, as "kid=base64secret,..."
+     */
+    public JwtService(@Value("${app.jwt.secret}") String secretKey,
+                      @Value("${app.jwt.key-id}") String keyId,
+                      @Value("${app.jwt.previous-keys}") String previousKeys,
+                      @Value("${app.jwt.expiration-ms}") long jwtExpirationMs) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.currentKeyId = keyId;
+        this.signingKey = toKey(secretKey);
+        this.verificationKeys.put(keyId, signingKey);
+        if (previousKeys != null && !previousKeys.isBlank()) {
+            for (String entry : previousKeys.split(",")) {
+                String[] parts = entry.trim().split("=", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("app.jwt.previous-keys entries must be kid=secret");
+                }
+                verificationKeys.putIfAbsent(parts[0].trim(), toKey(parts[1].trim()));
+            }
+        }
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        // Tokens issued before rotation support carry no kid: verify with the current key
+                        String kid = header.getKeyId();
+                        if (kid == null) {
+                            return signingKey;
+                        }
+                        SecretKey key = verificationKeys.get(kid);
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof AppUser user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+            claims.put(CLAIM_NAME, user.getRealUsername());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -33,11 +94,12 @@ public class JwtService {
         Date expiry = new Date(System.currentTimeMillis() + jwtExpirationMs); // Use injected expiration
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, currentKeyId)
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())      
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -54,6 +116,26 @@ public class JwtService {
         return !isTokenExpired(token);
     }
 
+    // Verifies signature and expiry in a single parse; throws JwtException if either fails
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
+    // Rebuilds the principal from signed claims, or null for tokens issued before the claims existed
+    public AppUser toPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        return AppUser.builder()
+                .id(userId.longValue())
+                .email(claims.getSubject())
+                .username(claims.get(CLAIM_NAME, String.class))
+                .role(Role.valueOf(role))
+                .build();
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
@@ -65,17 +147,11 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    private SecretKey getSigningKey() {
-    
-        // 3. USE the injected variable 'secretKey'
-       byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-       return Keys.hmacShaKeyFor(keyBytes);
+    private static SecretKey toKey(String secret) {
+        byte[] keyBytes = Decoders.BASE64.decode(secret);
+        return Keys.hmacShaKeyFor(keyBytes);
     }
 }
\ No newline at end of file
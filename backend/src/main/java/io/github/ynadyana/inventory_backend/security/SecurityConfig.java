@@ -1,7 +1,9 @@
 package io.github.ynadyana.inventory_backend.security;
 
 import io.github.ynadyana.inventory_backend.user.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -34,7 +36,7 @@ public class SecurityConfig {
     private final CustomUserDetailsService userDetailsService;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -55,17 +57,21 @@ public class SecurityConfig {
                 .requestMatchers("/images/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/**/*.png", "/**/*.jpg", "/**/*.jpeg", "/**/*.webp", "/**/*.svg").permitAll()
 
-                // 5. Protected Endpoints (AUTHENTICATION REQUIRED)
+                // 5. Actuator: health is public, metrics are for staff
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("STAFF")
+
+                // 6. Protected Endpoints (AUTHENTICATION REQUIRED)
                 .requestMatchers("/api/orders/**").authenticated()
                 .requestMatchers(HttpMethod.POST, "/api/products/**").authenticated()
                 .requestMatchers(HttpMethod.PUT, "/api/products/**").authenticated()
                 .requestMatchers(HttpMethod.DELETE, "/api/products/**").authenticated()
                 
-                // 6. All other requests require authentication
+                // 7. All other requests require authentication
                 .anyRequest().authenticated()
             )
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(authenticationProvider)
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -77,6 +83,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:5173"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Origin", "Accept"));
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -84,16 +91,29 @@ public class SecurityConfig {
         return source;
     }
 
+    // BCrypt on a bounded pool so login bursts get 503s instead of starving Tomcat threads
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.bcrypt.strength}") int strength,
+            @Value("${app.security.bcrypt.pool-size}") int poolSize,
+            @Value("${app.security.bcrypt.queue-capacity}") int queueCapacity,
+            @Value("${app.security.bcrypt.timeout-ms}") long timeoutMs,
+            MeterRegistry meterRegistry) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), threads, queueCapacity, timeoutMs, meterRegistry);
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(
+            PasswordEncoder passwordEncoder,
+            @Value("${app.security.bcrypt.rehash-on-login}") boolean rehashOnLogin) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Re-encode hashes weaker than the configured strength after a successful login
+        if (rehashOnLogin) {
+            authProvider.setUserDetailsPasswordService(userDetailsService);
+        }
         return authProvider;
     }
 
@@ -0,0 +1,89 @@
+package io.github.ynadyana.inventory_backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SHA-256(token) -> verified claims, so repeat requests with the same bearer token skip
+ * HMAC verification and JSON parsing. Each entry expires with the token's own "exp".
+ * Only digests are kept, never the raw tokens. Hit/miss/eviction counts are published
+ * as the "jwt.tokens" cache metrics.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final JwtService jwtService;
+    private final boolean enabled;
+    private final Cache<String, Claims> cache;
+
+    public VerifiedTokenCache(JwtService jwtService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.jwt.token-cache.enabled}") boolean enabled,
+                              @Value("${app.jwt.token-cache.max-size}") long maxSize) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        Date exp = claims.getExpiration();
+                        long millisLeft = exp != null ? exp.getTime() - System.currentTimeMillis() : 0;
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.tokens");
+    }
+
+    // Returns verified claims, verifying cryptographically only on a cache miss
+    public Claims verify(String token) {
+        if (!enabled) {
+            return jwtService.parseClaims(token);
+        }
+        Claims claims = cache.get(digest(token), key -> jwtService.parseClaims(token));
+        // Belt and braces: the entry should already be gone once exp passes
+        Date exp = claims.getExpiration();
+        if (exp != null && exp.getTime() <= System.currentTimeMillis()) {
+            cache.invalidate(digest(token));
+            return jwtService.parseClaims(token);
+        }
+        return claims;
+    }
+
+    private static String digest(String token) {
+        return HexFormat.of().formatHex(SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -2,7 +2,6 @@ package io.github.ynadyana.inventory_backend.config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -17,11 +16,5 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true);
     }
 
-    // Makes the image visible
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // "uploads" folder in project root becomes accessible at /uploads/...
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
-    }
+    // /uploads/** is served by Tomcat directly, not through Spring MVC: see UploadsConfig
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package io.github.ynadyana.inventory_backend.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Bounded, short-lived cache of AppUser by email for callers that need the full entity
+// (legacy tokens without role claims, or app.jwt.stateless=false). Code that updates a users row
+// evicts its entry, so the TTL only bounds how long a write made outside the app goes unseen.
+@Component
+public class AppUserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, AppUser> cache;
+
+    public AppUserCache(UserRepository userRepository,
+                        @Value("${app.user-cache.max-size}") long maxSize,
+                        @Value("${app.user-cache.ttl-seconds}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public AppUser get(String email) {
+        return cache.get(email, key -> userRepository.findByEmail(key)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + key)));
+    }
+
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+}
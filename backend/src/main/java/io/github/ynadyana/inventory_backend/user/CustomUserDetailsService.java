@@ -2,19 +2,31 @@ package io.github.ynadyana.inventory_backend.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final AppUserCache appUserCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
     }
+
+    // Called by DaoAuthenticationProvider when the stored hash uses a lower BCrypt cost than configured
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        AppUser appUser = (AppUser) user;
+        appUser.setPassword(newPassword);
+        AppUser saved = userRepository.save(appUser);
+        appUserCache.evict(saved.getEmail());
+        return saved;
+    }
 }
@@ -0,0 +1,62 @@
+package io.github.ynadyana.inventory_backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// AsyncConfig's own executors must not take MVC's async executor away (see spring.task.execution)
+@SpringBootTest(classes = {AsyncConfig.class, AsyncConfigTest.StreamingController.class})
+@ImportAutoConfiguration({TaskExecutionAutoConfiguration.class, WebMvcAutoConfiguration.class,
+		HttpMessageConvertersAutoConfiguration.class})
+class AsyncConfigTest {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Test
+	void streamingResponsesRunOnTheBoundedApplicationTaskExecutor() throws Exception {
+		Map<String, ThreadPoolTaskExecutor> pools = context.getBeansOfType(ThreadPoolTaskExecutor.class);
+		assertThat(pools).containsKeys("applicationTaskExecutor", "imageRenditionExecutor", "imageUploadExecutor");
+		ThreadPoolTaskExecutor mvcPool = pools.get("applicationTaskExecutor");
+		assertThat(mvcPool.getMaxPoolSize()).isEqualTo(4);
+		assertThat(mvcPool.getQueueCapacity()).isEqualTo(50);
+
+		MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+		MvcResult started = mockMvc.perform(get("/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(started))
+				.andExpect(content().string("task-1"));
+	}
+
+	@RestController
+	static class StreamingController {
+
+		// Reports the thread the body is written on, like the order export
+		@GetMapping("/stream")
+		StreamingResponseBody stream() {
+			return out -> out.write(Thread.currentThread().getName().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package io.github.ynadyana.inventory_backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestConcurrencyLimiterTest {
+
+	@Test
+	void rejectsRequestsPastTheLimitOnceTheQueueTimeoutExpires() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		RequestConcurrencyLimiter limiter = new RequestConcurrencyLimiter(1, 50, meterRegistry);
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		FilterChain slow = (request, response) -> {
+			entered.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		Future<?> running = pool.submit(() -> {
+			limiter.doFilter(request(), first, slow);
+			return null;
+		});
+		assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		limiter.doFilter(request(), rejected, (request, response) -> {
+			throw new AssertionError("Should not run past the limit");
+		});
+		assertThat(rejected.getStatus()).isEqualTo(503);
+		assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+		assertThat(rejected.getContentAsString()).contains("Server is busy");
+		assertThat(meterRegistry.get("requests.limit.rejected").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("requests.limit.active").gauge().value()).isEqualTo(1);
+
+		release.countDown();
+		running.get(10, TimeUnit.SECONDS);
+		pool.shutdown();
+
+		MockHttpServletResponse afterwards = new MockHttpServletResponse();
+		limiter.doFilter(request(), afterwards, (request, response) -> {});
+		assertThat(afterwards.getStatus()).isEqualTo(200);
+		assertThat(meterRegistry.get("requests.limit.active").gauge().value()).isZero();
+	}
+
+	@Test
+	void asyncRequestsHoldTheirPermitUntilTheyComplete() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		RequestConcurrencyLimiter limiter = new RequestConcurrencyLimiter(1, 50, meterRegistry);
+		MockHttpServletRequest streaming = request();
+		streaming.setAsyncSupported(true);
+
+		// Like a StreamingResponseBody: the handler returns before the body has been written
+		limiter.doFilter(streaming, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+		assertThat(meterRegistry.get("requests.limit.active").gauge().value()).isEqualTo(1);
+
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		limiter.doFilter(request(), rejected, (request, response) -> {});
+		assertThat(rejected.getStatus()).isEqualTo(503);
+
+		((MockAsyncContext) streaming.getAsyncContext()).complete();
+		assertThat(meterRegistry.get("requests.limit.active").gauge().value()).isZero();
+	}
+
+	private static MockHttpServletRequest request() {
+		return new MockHttpServletRequest("GET", "/api/products");
+	}
+}
@@ -0,0 +1,249 @@
+package io.github.ynadyana.inventory_backend.dashboard.service;
+
+import io.github.ynadyana.inventory_backend.dashboard.dto.DashboardResponse;
+import io.github.ynadyana.inventory_backend.dashboard.repository.DailyOrderRollupRepository;
+import io.github.ynadyana.inventory_backend.order.model.Order;
+import io.github.ynadyana.inventory_backend.order.model.OrderStatus;
+import io.github.ynadyana.inventory_backend.order.repository.OrderRepository;
+import io.github.ynadyana.inventory_backend.order.service.CheckoutMetrics;
+import io.github.ynadyana.inventory_backend.order.service.OrderService;
+import io.github.ynadyana.inventory_backend.product.service.CatalogCache;
+import io.github.ynadyana.inventory_backend.product.service.LowStockIndex;
+import io.github.ynadyana.inventory_backend.product.service.StockService;
+import io.github.ynadyana.inventory_backend.product.service.VariantIndex;
+import io.github.ynadyana.inventory_backend.user.AppUser;
+import io.github.ynadyana.inventory_backend.user.Role;
+import io.github.ynadyana.inventory_backend.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({DashboardService.class, OrderRollupService.class, OrderService.class, StockService.class, LowStockIndex.class,
+		VariantIndex.class, CatalogCache.class, CheckoutMetrics.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DashboardServiceTest {
+
+	@Autowired
+	private DashboardService dashboardService;
+
+	@Autowired
+	private OrderRollupService orderRollupService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private DailyOrderRollupRepository rollupRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private AppUser customer;
+	private final AppUser staff = AppUser.builder().id(-1L).email("staff@example.com").role(Role.STAFF).build();
+
+	@BeforeEach
+	void setUp() {
+		orderRepository.deleteAll();
+		rollupRepository.deleteAllInBatch();
+		customer = userRepository.findByEmail("rollups@example.com").orElseGet(() -> userRepository.save(AppUser.builder()
+				.email("rollups@example.com").password("x").username("rollups").role(Role.CUSTOMER)
+				.build()));
+	}
+
+	@Test
+	void committedOrdersAndStatusChangesReachTheDashboard() {
+		LocalDateTime now = LocalDateTime.now();
+		place("100.00", now);
+		Order cancelled = place("40.00", now);
+		Order shipped = place("25.50", now.minusDays(2));
+		orderService.updateStatus(cancelled.getId(), OrderStatus.CANCELLED);
+		orderService.updateStatus(shipped.getId(), OrderStatus.SHIPPED);
+
+		DashboardResponse dashboard = dashboardService.getDashboard(staff, 7);
+
+		assertThat(dashboard.totalOrders()).isEqualTo(3);
+		assertThat(dashboard.totalRevenue()).isEqualByComparingTo("125.50");
+		assertThat(dashboard.ordersByStatus()).containsExactlyInAnyOrderEntriesOf(Map.of(
+				OrderStatus.PENDING, 1L, OrderStatus.CANCELLED, 1L, OrderStatus.SHIPPED, 1L));
+		// Zero-filled, oldest first, today last
+		assertThat(dashboard.daily()).hasSize(7);
+		DashboardResponse.DailyPoint today = dashboard.daily().get(6);
+		assertThat(today.date()).isEqualTo(now.toLocalDate());
+		assertThat(today.orders()).isEqualTo(2);
+		assertThat(today.revenue()).isEqualByComparingTo("100.00");
+		assertThat(dashboard.daily().get(4).revenue()).isEqualByComparingTo("25.50");
+		assertThat(dashboard.daily().get(5).orders()).isZero();
+		assertThat(dashboard.recentOrders()).hasSize(3);
+	}
+
+	@Test
+	void rebuildReproducesTheIncrementalRollupsAndRepairsLostUpdates() {
+		LocalDateTime now = LocalDateTime.now();
+		place("10.00", now);
+		Order shipped = place("20.00", now.minusDays(1));
+		orderService.updateStatus(shipped.getId(), OrderStatus.SHIPPED);
+		List<String> incremental = rollups();
+
+		assertThat(dashboardService.rebuildRollups()).isEqualTo(2);
+		assertThat(rollups()).isEqualTo(incremental);
+
+		// Committed without its rollup delta, as after a crash between the two transactions
+		orderRepository.save(order("5.00", now));
+		dashboardService.rebuildRollups();
+		assertThat(dashboardService.getDashboard(staff, 1).daily().get(0).orders()).isEqualTo(2);
+	}
+
+	@Test
+	void deltasThatArriveLateOrTwiceAreNotCountedAgain() {
+		LocalDateTime now = LocalDateTime.now();
+		// Committed, but its delta is still pending when the rebuild runs
+		Order order = orderRepository.save(order("30.00", now));
+		dashboardService.rebuildRollups();
+		orderRollupService.orderPlaced(order);
+		orderRollupService.orderPlaced(order);
+		assertThat(rollups()).containsExactly(now.toLocalDate() + " PENDING 1 30");
+
+		// Two status changes commit before either delta runs
+		setStatus(order.getId(), OrderStatus.SHIPPED);
+		setStatus(order.getId(), OrderStatus.COMPLETED);
+		orderRollupService.statusChanged(order);
+		orderRollupService.statusChanged(order);
+		assertThat(rollups()).containsExactly(now.toLocalDate() + " COMPLETED 1 30");
+	}
+
+	@Test
+	void concurrentStatusChangesLeaveTheOrderCountedOnce() throws Exception {
+		LocalDateTime now = LocalDateTime.now();
+		Order order = place("50.00", now);
+		List<OrderStatus> targets = List.of(OrderStatus.SHIPPED, OrderStatus.CANCELLED, OrderStatus.COMPLETED,
+				OrderStatus.SHIPPED, OrderStatus.CANCELLED, OrderStatus.COMPLETED, OrderStatus.SHIPPED, OrderStatus.CANCELLED);
+
+		runConcurrently(targets.stream()
+				.<Callable<?>>map(status -> () -> orderService.updateStatus(order.getId(), status))
+				.toList());
+
+		OrderStatus last = orderRepository.findById(order.getId()).orElseThrow().getStatus();
+		assertThat(rollups()).containsExactly(now.toLocalDate() + " " + last + " 1 50");
+	}
+
+	@Test
+	void rebuildsRacingCheckoutsCountEveryOrderOnce() throws Exception {
+		LocalDateTime now = LocalDateTime.now();
+		AtomicBoolean checkingOut = new AtomicBoolean(true);
+		List<Callable<?>> tasks = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			tasks.add(() -> {
+				for (int i = 0; i < 20; i++) {
+					place("1.00", now);
+				}
+				return null;
+			});
+		}
+		tasks.add(() -> {
+			while (checkingOut.get()) {
+				dashboardService.rebuildRollups();
+			}
+			return null;
+		});
+
+		runConcurrently(tasks.subList(0, 4), () -> checkingOut.set(false), tasks.get(4));
+
+		assertThat(rollups()).containsExactly(now.toLocalDate() + " PENDING 80 80");
+	}
+
+	// Starts every task at once and waits for them; `whenFirstDone` runs once the first group has finished
+	private static void runConcurrently(List<Callable<?>> tasks) throws Exception {
+		runConcurrently(tasks, () -> { }, null);
+	}
+
+	private static void runConcurrently(List<Callable<?>> tasks, Runnable whenFirstDone, Callable<?> background) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(tasks.size() + 1);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (Callable<?> task : tasks) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					return task.call();
+				}));
+			}
+			Future<?> backgroundFuture = background != null ? pool.submit(() -> {
+				start.await();
+				return background.call();
+			}) : null;
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+			whenFirstDone.run();
+			if (backgroundFuture != null) {
+				backgroundFuture.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private void setStatus(Long orderId, OrderStatus status) {
+		Order order = orderRepository.findById(orderId).orElseThrow();
+		order.setStatus(status);
+		orderRepository.save(order);
+	}
+
+	// Same two steps as placeOrder: save, then register the after-commit rollup delta
+	private Order place(String amount, LocalDateTime orderDate) {
+		return new TransactionTemplate(transactionManager).execute(status -> {
+			Order saved = orderRepository.save(order(amount, orderDate));
+			orderRollupService.orderPlaced(saved);
+			return saved;
+		});
+	}
+
+	private Order order(String amount, LocalDateTime orderDate) {
+		return Order.builder()
+				.user(customer)
+				.totalAmount(new BigDecimal(amount))
+				.status(OrderStatus.PENDING)
+				.orderDate(orderDate)
+				.build();
+	}
+
+	// Incremental updates leave emptied rows at zero where a rebuild has none
+	private List<String> rollups() {
+		return rollupRepository.findAll().stream()
+				.filter(r -> r.getOrderCount() != 0)
+				.map(r -> r.getRollupDate() + " " + r.getStatus() + " " + r.getOrderCount() + " " + r.getRevenue().stripTrailingZeros().toPlainString())
+				.sorted()
+				.toList();
+	}
+}
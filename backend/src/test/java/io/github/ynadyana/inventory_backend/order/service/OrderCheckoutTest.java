@@ -0,0 +1,192 @@
+package io.github.ynadyana.inventory_backend.order.service;
+
+import io.github.ynadyana.inventory_backend.dashboard.service.OrderRollupService;
+import io.github.ynadyana.inventory_backend.order.dto.OrderRequest;
+import io.github.ynadyana.inventory_backend.order.dto.OrderResponse;
+import io.github.ynadyana.inventory_backend.order.repository.OrderRepository;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import io.github.ynadyana.inventory_backend.product.repository.ProductVariantRepository;
+import io.github.ynadyana.inventory_backend.product.service.CatalogCache;
+import io.github.ynadyana.inventory_backend.product.service.LowStockIndex;
+import io.github.ynadyana.inventory_backend.product.service.StockService;
+import io.github.ynadyana.inventory_backend.product.service.VariantIndex;
+import io.github.ynadyana.inventory_backend.user.AppUser;
+import io.github.ynadyana.inventory_backend.user.UserRepository;
+import io.github.ynadyana.inventory_backend.user.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({OrderService.class, StockService.class, LowStockIndex.class, VariantIndex.class, OrderRollupService.class, CatalogCache.class,
+		CheckoutMetrics.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderCheckoutTest {
+
+	private static final int THREADS = 60;
+	private static final int INITIAL_STOCK = 20;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductVariantRepository productVariantRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private AppUser customer;
+
+	@BeforeEach
+	void setUp() {
+		String id = UUID.randomUUID().toString();
+		customer = userRepository.save(AppUser.builder()
+				.email(id + "@example.com").password("x").username(id).role(Role.CUSTOMER)
+				.build());
+	}
+
+	// These orders commit, and the query-count test shares this database and lists every order
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll();
+	}
+
+	@Test
+	void concurrentMultiLineCheckoutsNeverOversell() throws Exception {
+		Product phone = product("Phone", INITIAL_STOCK);
+		Product charger = product("Charger", INITIAL_STOCK);
+		OrderRequest request = request(phone, charger);
+		long ordersBefore = orderRepository.count();
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger placed = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				try {
+					orderService.placeOrder(customer, request);
+					placed.incrementAndGet();
+				} catch (RuntimeException e) {
+					assertThat(e).hasMessageStartingWith("Insufficient stock");
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> f : futures) {
+			f.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertThat(placed.get()).isEqualTo(INITIAL_STOCK);
+		assertThat(stock(phone)).isZero();
+		assertThat(stock(charger)).isZero();
+		// Rejected checkouts left no order behind
+		assertThat(orderRepository.count() - ordersBefore).isEqualTo(INITIAL_STOCK);
+	}
+
+	@Test
+	void rejectedLineRollsBackTheWholeOrder() {
+		Product phone = product("Phone", 5);
+		Product charger = product("Charger", 0);
+		long ordersBefore = orderRepository.count();
+
+		assertThatThrownBy(() -> orderService.placeOrder(customer, request(phone, charger)))
+				.hasMessageContaining("Insufficient stock for: Charger");
+
+		assertThat(stock(phone)).isEqualTo(5);
+		assertThat(orderRepository.count()).isEqualTo(ordersBefore);
+	}
+
+	@Test
+	void cartProductsLoadInOneQuery() {
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			products.add(product("Item " + i, 10));
+		}
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		OrderResponse order = orderService.placeOrder(customer, request(products.toArray(Product[]::new)));
+
+		assertThat(order.getItems()).hasSize(5)
+				.allSatisfy(item -> assertThat(item.getProductName()).startsWith("Item "));
+		// One JOIN FETCH for every product with its variants, no per-line lookups or lazy loads;
+		// the other query (and entity) is the rollup delta's locked read of the order after commit
+		assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+		assertThat(statistics.getEntityFetchCount()).isZero();
+		assertThat(statistics.getEntityLoadCount()).isEqualTo(11);
+	}
+
+	private Product product(String name, int stock) {
+		Product product = Product.builder()
+				.sku("SKU-" + UUID.randomUUID())
+				.name(name)
+				.price(BigDecimal.TEN)
+				.active(true)
+				.build();
+		ProductVariant variant = new ProductVariant();
+		variant.setColorName("Black");
+		variant.setStock(stock);
+		variant.setProduct(product);
+		product.setVariants(new ArrayList<>(List.of(variant)));
+		return productRepository.save(product);
+	}
+
+	private static OrderRequest request(Product... products) {
+		List<OrderRequest.OrderItemRequest> items = new ArrayList<>();
+		for (Product product : products) {
+			OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+			item.setProductId(product.getId());
+			item.setVariantName("Black");
+			item.setQuantity(1);
+			item.setPrice(BigDecimal.TEN);
+			items.add(item);
+		}
+		OrderRequest request = new OrderRequest();
+		request.setItems(items);
+		request.setTotalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(products.length)));
+		return request;
+	}
+
+	private int stock(Product product) {
+		return productVariantRepository.findById(product.getVariants().get(0).getId()).orElseThrow().getStock();
+	}
+}
@@ -0,0 +1,143 @@
+package io.github.ynadyana.inventory_backend.order.service;
+
+import io.github.ynadyana.inventory_backend.dashboard.service.OrderRollupService;
+import io.github.ynadyana.inventory_backend.order.dto.OrderFilter;
+import io.github.ynadyana.inventory_backend.order.dto.OrderPage;
+import io.github.ynadyana.inventory_backend.order.dto.OrderResponse;
+import io.github.ynadyana.inventory_backend.order.model.Order;
+import io.github.ynadyana.inventory_backend.order.model.OrderStatus;
+import io.github.ynadyana.inventory_backend.product.service.CatalogCache;
+import io.github.ynadyana.inventory_backend.product.service.LowStockIndex;
+import io.github.ynadyana.inventory_backend.product.service.StockService;
+import io.github.ynadyana.inventory_backend.product.service.VariantIndex;
+import io.github.ynadyana.inventory_backend.user.AppUser;
+import io.github.ynadyana.inventory_backend.user.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({OrderService.class, StockService.class, LowStockIndex.class, VariantIndex.class, OrderRollupService.class, CatalogCache.class,
+		CheckoutMetrics.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+class OrderPagingTest {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void keysetIndexesMatchTheListingSortOrder() {
+		assertThat(indexColumns("IDX_ORDERS_DATE_ID")).containsExactly("ORDER_DATE DESC", "ID DESC");
+		assertThat(indexColumns("IDX_ORDERS_USER_DATE_ID")).containsExactly("USER_ID ASC", "ORDER_DATE DESC", "ID DESC");
+		assertThat(indexColumns("IDX_ORDERS_STATUS_DATE_ID")).containsExactly("STATUS ASC", "ORDER_DATE DESC", "ID DESC");
+	}
+
+	@Test
+	void pagesWalkEveryOrderOnceNewestFirst() {
+		AppUser customer = AppUser.builder()
+				.email("pager@example.com").password("x").username("pager").role(Role.CUSTOMER)
+				.build();
+		entityManager.persist(customer);
+		// Pairs of orders share a timestamp, so the id tiebreaker decides their order
+		LocalDateTime now = LocalDateTime.now().withNano(0);
+		for (int i = 0; i < 120; i++) {
+			entityManager.persist(Order.builder()
+					.user(customer)
+					.totalAmount(BigDecimal.TEN)
+					.status(i % 3 == 0 ? OrderStatus.SHIPPED : OrderStatus.PENDING)
+					.orderDate(now.minusMinutes(i / 2))
+					.build());
+		}
+		entityManager.flush();
+		entityManager.clear();
+		AppUser staff = AppUser.builder().id(-1L).email("staff@example.com").role(Role.STAFF).build();
+
+		// Without a limit the first page stops at the default size and hands back a cursor
+		OrderPage first = orderService.getOrders(staff, new OrderFilter(null, null, null, null), null, null);
+		assertThat(first.items()).hasSize(50);
+		assertThat(first.nextCursor()).isNotNull();
+
+		List<OrderResponse> walked = new ArrayList<>(first.items());
+		String cursor = first.nextCursor();
+		while (cursor != null) {
+			OrderPage page = orderService.getOrders(staff, new OrderFilter(null, null, null, null), cursor, 50);
+			walked.addAll(page.items());
+			cursor = page.nextCursor();
+		}
+		assertThat(walked).hasSize(120);
+		assertThat(walked).extracting(OrderResponse::getId).doesNotHaveDuplicates();
+		for (int i = 1; i < walked.size(); i++) {
+			OrderResponse newer = walked.get(i - 1);
+			OrderResponse older = walked.get(i);
+			assertThat(newer.getOrderDate()).isAfterOrEqualTo(older.getOrderDate());
+			if (newer.getOrderDate().equals(older.getOrderDate())) {
+				assertThat(newer.getId()).isGreaterThan(older.getId());
+			}
+		}
+
+		OrderPage shipped = orderService.getOrders(staff, new OrderFilter(OrderStatus.SHIPPED, null, null, null), null, 200);
+		assertThat(shipped.items()).hasSize(40).allSatisfy(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.SHIPPED));
+		assertThat(shipped.nextCursor()).isNull();
+	}
+
+	@Test
+	void exportKeepsAtMostOneChunkOfOrdersAndCustomersManaged() {
+		// Every order has its own customer, so customers alone would fill the context if they stayed managed
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < 1_100; i++) {
+			AppUser customer = AppUser.builder()
+					.email("export" + i + "@example.com").password("x").username("export" + i).role(Role.CUSTOMER)
+					.build();
+			entityManager.persist(customer);
+			entityManager.persist(Order.builder()
+					.user(customer).totalAmount(BigDecimal.ONE).status(OrderStatus.PENDING).orderDate(now.minusSeconds(i))
+					.build());
+		}
+		entityManager.flush();
+		entityManager.clear();
+		AppUser staff = AppUser.builder().id(-1L).email("staff@example.com").role(Role.STAFF).build();
+
+		Session session = entityManager.unwrap(Session.class);
+		int[] lines = {0};
+		int[] mostManaged = {0};
+		OutputStream out = new OutputStream() {
+			@Override
+			public void write(int b) {
+				if (b == '\n') {
+					lines[0]++;
+					mostManaged[0] = Math.max(mostManaged[0], session.getStatistics().getEntityCount());
+				}
+			}
+		};
+		orderService.exportOrders(staff, new OrderFilter(null, null, null, null), out);
+
+		assertThat(lines[0]).isEqualTo(1_100);
+		// One 500-order chunk and its 500 customers
+		assertThat(mostManaged[0]).isLessThanOrEqualTo(1_000);
+	}
+
+	private List<String> indexColumns(String index) {
+		return jdbcTemplate.queryForList(
+				"SELECT COLUMN_NAME || ' ' || ORDERING_SPECIFICATION FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+						"WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION", String.class, index);
+	}
+}
@@ -0,0 +1,102 @@
+package io.github.ynadyana.inventory_backend.order.service;
+
+import io.github.ynadyana.inventory_backend.dashboard.service.OrderRollupService;
+import io.github.ynadyana.inventory_backend.order.dto.OrderFilter;
+import io.github.ynadyana.inventory_backend.order.dto.OrderPage;
+import io.github.ynadyana.inventory_backend.order.model.Order;
+import io.github.ynadyana.inventory_backend.order.model.OrderItem;
+import io.github.ynadyana.inventory_backend.order.model.OrderStatus;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.service.CatalogCache;
+import io.github.ynadyana.inventory_backend.product.service.LowStockIndex;
+import io.github.ynadyana.inventory_backend.product.service.StockService;
+import io.github.ynadyana.inventory_backend.product.service.VariantIndex;
+import io.github.ynadyana.inventory_backend.user.AppUser;
+import io.github.ynadyana.inventory_backend.user.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({OrderService.class, StockService.class, LowStockIndex.class, VariantIndex.class, OrderRollupService.class, CatalogCache.class,
+		CheckoutMetrics.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+class OrderServiceQueryCountTest {
+
+	private static final int ORDERS = 200;
+	private static final int ITEMS_PER_ORDER = 5;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void orderPageLoadsInConstantStatements() {
+		List<AppUser> customers = new ArrayList<>();
+		for (int u = 0; u < 10; u++) {
+			AppUser customer = AppUser.builder()
+					.email("customer" + u + "@example.com").password("x").username("customer" + u).role(Role.CUSTOMER)
+					.build();
+			entityManager.persist(customer);
+			customers.add(customer);
+		}
+		List<Product> products = new ArrayList<>();
+		for (int p = 0; p < 20; p++) {
+			Product product = Product.builder()
+					.sku("SKU-" + p).name("Product " + p).price(BigDecimal.TEN).active(true)
+					.build();
+			entityManager.persist(product);
+			products.add(product);
+		}
+		for (int o = 0; o < ORDERS; o++) {
+			Order order = Order.builder()
+					.user(customers.get(o % customers.size()))
+					.totalAmount(BigDecimal.TEN)
+					.status(OrderStatus.PENDING)
+					.orderDate(LocalDateTime.now().minusMinutes(o))
+					.build();
+			for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+				Product product = products.get((o + i) % products.size());
+				order.getItems().add(OrderItem.builder()
+						.productId(product.getId()).variantName("Standard").quantity(1).price(BigDecimal.TEN).order(order)
+						.build());
+			}
+			entityManager.persist(order);
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		AppUser staff = AppUser.builder().id(-1L).email("staff@example.com").role(Role.STAFF).build();
+		OrderPage page = orderService.getOrders(staff, new OrderFilter(null, null, null, null), null, ORDERS);
+
+		assertThat(page.items()).hasSize(ORDERS);
+		assertThat(page.items()).allSatisfy(order -> {
+			assertThat(order.getUserEmail()).isNotNull();
+			assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER)
+					.allSatisfy(item -> assertThat(item.getProductName()).startsWith("Product "));
+		});
+		// One query for the orders (with customers), one for every line with its product name
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,152 @@
+package io.github.ynadyana.inventory_backend.product.controller;
+
+import io.github.ynadyana.inventory_backend.config.AsyncConfig;
+import io.github.ynadyana.inventory_backend.product.dto.ProductRequest;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.service.CatalogCache;
+import io.github.ynadyana.inventory_backend.product.service.ImageRenditionService;
+import io.github.ynadyana.inventory_backend.product.service.ImageStore;
+import io.github.ynadyana.inventory_backend.product.service.LowStockIndex;
+import io.github.ynadyana.inventory_backend.product.service.ProductFacetService;
+import io.github.ynadyana.inventory_backend.product.service.ProductSearchIndex;
+import io.github.ynadyana.inventory_backend.product.service.ProductService;
+import io.github.ynadyana.inventory_backend.product.service.StockService;
+import io.github.ynadyana.inventory_backend.product.service.VariantIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DataJpaTest
+@Import({ProductController.class, ProductService.class, StockService.class, VariantIndex.class, LowStockIndex.class,
+		ProductSearchIndex.class, ProductFacetService.class, CatalogCache.class, ImageRenditionService.class, ImageStore.class,
+		AsyncConfig.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+// Writes must commit: the catalog cache only drops what they touched after commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductControllerConditionalTest {
+
+	@Autowired
+	private ProductController productController;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CatalogCache catalogCache;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private MockMvc mockMvc;
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.standaloneSetup(productController).build();
+		ProductRequest request = request("Kindle Paperwhite");
+		request.setSku("SKU-COND-" + UUID.randomUUID());
+		request.setStock(4);
+		product = productService.createProduct(request);
+	}
+
+	@Test
+	void matchingEtagGetsA304WithoutABody() throws Exception {
+		String etag = etag("/api/products/" + product.getId());
+
+		mockMvc.perform(get("/api/products/" + product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(content().string(""));
+		mockMvc.perform(get("/api/products/categories").header(HttpHeaders.IF_NONE_MATCH, etag("/api/products/categories")))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void aWriteRightAfterAGetIsServedWithANewValidator() throws Exception {
+		MvcResult before = mockMvc.perform(get("/api/products/" + product.getId()))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+				.andReturn();
+		String etag = before.getResponse().getHeader(HttpHeaders.ETAG);
+		String categoriesEtag = etag("/api/products/categories");
+
+		// Well within the same second as the GET above
+		productService.updateProduct(product.getId(), request("Kindle Paperwhite Signature"));
+
+		String after = mockMvc.perform(get("/api/products/" + product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("Kindle Paperwhite Signature")))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(after).isNotNull().isNotEqualTo(etag);
+		// The rename left the category list as it was, so its validator still matches
+		mockMvc.perform(get("/api/products/categories").header(HttpHeaders.IF_NONE_MATCH, categoriesEtag))
+				.andExpect(status().isNotModified());
+		// A date-only revalidation cannot tell same-second versions apart, so it is never answered with a 304
+		String inAMinute = DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.now().plusSeconds(60).atZone(ZoneOffset.UTC));
+		mockMvc.perform(get("/api/products/" + product.getId()).header(HttpHeaders.IF_MODIFIED_SINCE, inAMinute))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void theEtagFollowsTheDataEvenWhenItChangesOutsideTheApi() throws Exception {
+		MvcResult before = mockMvc.perform(get("/api/products/" + product.getId()))
+				.andExpect(status().isOk())
+				.andReturn();
+		String etag = before.getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isEqualTo("\"" + DigestUtils.md5DigestAsHex(before.getResponse().getContentAsByteArray()) + "\"");
+
+		// A direct SQL write (or one through another instance) never reaches this instance's cache;
+		// once the cached copy is gone the new data brings a new validator
+		jdbcTemplate.update("UPDATE products SET name = ? WHERE id = ?", "Kindle Colorsoft", product.getId());
+		catalogCache.invalidateAll();
+
+		mockMvc.perform(get("/api/products/" + product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("Kindle Colorsoft")))
+				.andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+		// The same data always hashes to the same validator
+		assertThat(etag("/api/products/" + product.getId())).isEqualTo(etag("/api/products/" + product.getId()));
+	}
+
+	private String etag(String path) throws Exception {
+		String etag = mockMvc.perform(get(path))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotNull();
+		return etag;
+	}
+
+	private static ProductRequest request(String name) {
+		ProductRequest request = new ProductRequest();
+		request.setName(name);
+		request.setCategory("E-Readers");
+		request.setBrand("Amazon");
+		request.setPrice(new BigDecimal("159.99"));
+		return request;
+	}
+}
@@ -0,0 +1,91 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.dto.CatalogPage;
+import io.github.ynadyana.inventory_backend.product.dto.ProductFilter;
+import io.github.ynadyana.inventory_backend.product.dto.ProductSummary;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogCacheTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final CatalogCache cache = new CatalogCache(registry, true, true, 10_000, 300);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void stockChangesInvalidateTheProductAndPagesShowingIt() {
+		ProductFilter all = new ProductFilter(null, null, null, null, null, false, true);
+		ProductFilter inStock = new ProductFilter(null, null, null, null, null, true, true);
+
+		loadProduct(1L);
+		loadProduct(1L);
+		loadPage(all, 1L);
+		loadPage(all, 1L);
+		loadPage(inStock, 2L);
+		assertThat(loads).hasValue(3);
+
+		// A sale of product 2 leaves product 1's detail and the unfiltered page showing only product 1 cached,
+		// but any in-stock-only list may have shifted
+		cache.stockChanged(Set.of(2L));
+		loadProduct(1L);
+		loadPage(all, 1L);
+		assertThat(loads).hasValue(3);
+		loadPage(inStock, 2L);
+		assertThat(loads).hasValue(4);
+
+		cache.stockChanged(Set.of(1L));
+		loadProduct(1L);
+		loadPage(all, 1L);
+		assertThat(loads).hasValue(6);
+
+		assertThat(registry.get("catalog.cache.requests").tag("cache", "product").tag("result", "hit").counter().count())
+				.isEqualTo(2);
+		assertThat(registry.get("catalog.cache.requests").tag("cache", "page").tag("result", "stale").counter().count())
+				.isEqualTo(2);
+	}
+
+	@Test
+	void adminWritesInvalidateEveryList() {
+		ProductFilter all = new ProductFilter(null, null, null, null, null, false, true);
+		loadProduct(1L);
+		loadPage(all, 1L);
+
+		cache.productChanged(2L);
+		loadProduct(1L);
+		loadPage(all, 1L);
+		assertThat(loads).hasValue(3);
+	}
+
+	private void loadProduct(Long id) {
+		cache.product(id, () -> {
+			loads.incrementAndGet();
+			return product(id);
+		});
+	}
+
+	private void loadPage(ProductFilter filter, Long productId) {
+		cache.page(filter, PageRequest.of(0, 10), false, () -> {
+			loads.incrementAndGet();
+			return CatalogPage.of(new PageImpl<>(List.of(summary(productId))), null);
+		});
+	}
+
+	private static Product product(Long id) {
+		return Product.builder().id(id).sku("SKU-" + id).name("Product " + id).price(BigDecimal.ONE).active(true).build();
+	}
+
+	private static ProductSummary summary(Long id) {
+		return new ProductSummary(id, "SKU-" + id, "Product " + id, null, null, null, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE,
+				null, null, null, 0L, true);
+	}
+}
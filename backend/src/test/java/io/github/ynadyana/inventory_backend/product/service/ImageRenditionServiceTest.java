@@ -0,0 +1,70 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.model.ImageRenditions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageRenditionServiceTest {
+
+	@TempDir
+	Path uploads;
+
+	@Test
+	void rendersEverySizeAsJpegWithinItsBounds() throws Exception {
+		BufferedImage original = new BufferedImage(3000, 1500, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = original.createGraphics();
+		g.setColor(Color.BLUE);
+		g.fillOval(0, 0, 3000, 1500);
+		g.dispose();
+		ImageIO.write(original, "png", uploads.resolve("abc_phone.png").toFile());
+
+		ImageRenditions renditions = service().render("uploads/abc_phone.png");
+
+		assertThat(renditions.getThumbnailUrl()).isEqualTo("uploads/renditions/abc_phone-thumb.jpg");
+		assertThat(renditions.getCardUrl()).isEqualTo("uploads/renditions/abc_phone-card.jpg");
+		assertThat(renditions.getDetailUrl()).isEqualTo("uploads/renditions/abc_phone-detail.jpg");
+		assertSize(renditions.getThumbnailUrl(), 160, 80);
+		assertSize(renditions.getCardUrl(), 480, 240);
+		assertSize(renditions.getDetailUrl(), 1200, 600);
+		assertThat(Files.size(file(renditions.getCardUrl()))).isLessThan(Files.size(uploads.resolve("abc_phone.png")));
+	}
+
+	@Test
+	void neverUpscalesAndSkipsWhatItCannotRender() throws Exception {
+		ImageIO.write(new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB), "jpg", uploads.resolve("small.jpg").toFile());
+		Files.writeString(uploads.resolve("notes.png"), "not an image");
+		ImageRenditionService service = service();
+
+		ImageRenditions renditions = service.render("uploads/small.jpg");
+		assertSize(renditions.getThumbnailUrl(), 160, 107);
+		assertSize(renditions.getDetailUrl(), 300, 200);
+
+		assertThat(service.render("uploads/notes.png")).isNull();
+		assertThat(service.render("uploads/missing.png")).isNull();
+		assertThat(service.render("uploads/../small.jpg")).isNull();
+		assertThat(service.render("https://cdn.example.com/a.jpg")).isNull();
+	}
+
+	private ImageRenditionService service() {
+		return new ImageRenditionService(null, null, null, uploads.toString(), true, 0.8f);
+	}
+
+	private Path file(String url) {
+		return uploads.resolve(url.substring("uploads/".length()));
+	}
+
+	private void assertSize(String url, int width, int height) throws Exception {
+		BufferedImage image = ImageIO.read(file(url).toFile());
+		assertThat(image.getWidth()).isEqualTo(width);
+		assertThat(image.getHeight()).isEqualTo(height);
+	}
+}
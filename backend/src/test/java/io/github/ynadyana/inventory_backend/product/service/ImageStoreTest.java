@@ -0,0 +1,160 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageStoreTest {
+
+	@TempDir
+	Path uploads;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void shutDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void namesFilesByContentAndStoresDuplicatesOnce() throws Exception {
+		ImageStore store = store(Set.of());
+		byte[] photo = "same bytes".getBytes();
+
+		List<String> urls;
+		try (ImageStore.Batch batch = store.storeAll(List.of(
+				image("Front View.JPEG", photo), image("copy.jpg", photo), image("back.jpg", "other bytes".getBytes())))) {
+			urls = batch.urls();
+			batch.committed();
+		}
+
+		// First 128 bits of SHA-256("same bytes"), in the order the files were given
+		assertThat(urls.get(0)).isEqualTo("uploads/58100dc8fc06562ce3e578231dc948e0.jpg");
+		assertThat(urls.get(1)).isEqualTo(urls.get(0));
+		assertThat(urls.get(2)).isNotEqualTo(urls.get(0));
+		assertThat(storedFiles()).hasSize(2);
+		assertThat(Files.readAllBytes(file(urls.get(0)))).isEqualTo(photo);
+	}
+
+	@Test
+	void uncommittedBatchRemovesOnlyFilesNothingElseUses() throws Exception {
+		ImageStore store = store(Set.of());
+		String existing;
+		try (ImageStore.Batch earlier = store.storeAll(List.of(image("a.jpg", "stored earlier".getBytes())))) {
+			existing = earlier.urls().get(0);
+			earlier.committed();
+		}
+
+		ImageStore.Batch other = store.storeAll(List.of(image("b.jpg", "shared".getBytes())));
+		String sharedUrl;
+		try (ImageStore.Batch failed = store.storeAll(List.of(
+				image("a.jpg", "stored earlier".getBytes()), image("b.jpg", "shared".getBytes()), image("c.jpg", "only here".getBytes())))) {
+			sharedUrl = failed.urls().get(1);
+			assertThat(Files.exists(file(failed.urls().get(2)))).isTrue();
+			// transaction fails: never marked committed
+		}
+
+		// Existing file untouched, "shared" kept for the batch still open, "only here" removed
+		assertThat(storedFiles()).containsExactlyInAnyOrder(file(existing), file(sharedUrl));
+
+		other.close();
+		assertThat(storedFiles()).containsExactly(file(existing));
+	}
+
+	@Test
+	void keepsFilesARowAlreadyReferences() throws Exception {
+		Set<String> referenced = new HashSet<>();
+		ImageStore store = store(referenced);
+		byte[] photo = "linked meanwhile".getBytes();
+
+		String url;
+		try (ImageStore.Batch batch = store.storeAll(List.of(image("x.png", photo)))) {
+			url = batch.urls().get(0);
+		}
+		assertThat(storedFiles()).isEmpty();
+
+		referenced.add(url);
+		try (ImageStore.Batch batch = store.storeAll(List.of(image("x.png", photo)))) {
+			assertThat(batch.urls()).containsExactly(url);
+		}
+		assertThat(storedFiles()).containsExactly(file(url));
+	}
+
+	@Test
+	void referenceChecksRunUnlockedAndYieldToUploadsMeanwhile() throws Exception {
+		byte[] photo = "uploaded twice".getBytes();
+		AtomicBoolean racing = new AtomicBoolean(true);
+		ImageStore[] store = new ImageStore[1];
+		// While the failed batch asks whether its file is referenced, another request uploads the same
+		// bytes and commits a row pointing at it: the query has already answered "no"
+		store[0] = new ImageStore(uploads.toString(), executor, null, null, new SimpleMeterRegistry()) {
+			@Override
+			boolean isReferenced(String url) {
+				if (racing.getAndSet(false)) {
+					CompletableFuture.runAsync(() -> {
+						try (ImageStore.Batch other = store[0].storeAll(List.of(image("y.jpg", photo)))) {
+							other.committed();
+						}
+					}).orTimeout(5, TimeUnit.SECONDS).join();
+				}
+				return false;
+			}
+		};
+
+		String url;
+		try (ImageStore.Batch failed = store[0].storeAll(List.of(image("y.jpg", photo)))) {
+			url = failed.urls().get(0);
+		}
+
+		assertThat(racing).isFalse();
+		assertThat(storedFiles()).containsExactly(file(url));
+	}
+
+	@Test
+	void keepsOnlyPlainExtensions() {
+		assertThat(ImageStore.extension("phone.PNG")).isEqualTo(".png");
+		assertThat(ImageStore.extension("phone.jpeg")).isEqualTo(".jpg");
+		assertThat(ImageStore.extension("no-extension")).isEmpty();
+		assertThat(ImageStore.extension("evil.j/../x")).isEmpty();
+		assertThat(ImageStore.extension(null)).isEmpty();
+	}
+
+	// Stands in for the product/variant reference queries
+	private ImageStore store(Set<String> referencedUrls) {
+		return new ImageStore(uploads.toString(), executor, null, null, new SimpleMeterRegistry()) {
+			@Override
+			boolean isReferenced(String url) {
+				return referencedUrls.contains(url);
+			}
+		};
+	}
+
+	private static MockMultipartFile image(String name, byte[] content) {
+		return new MockMultipartFile("albumImages", name, "image/jpeg", content);
+	}
+
+	private Path file(String url) {
+		return uploads.resolve(url.substring("uploads/".length()));
+	}
+
+	private List<Path> storedFiles() throws Exception {
+		try (var files = Files.list(uploads)) {
+			return files.toList();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.dto.LowStockItem;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LowStockIndexTest {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Test
+	void stockChangesDuringAReloadAreNeitherBlockedNorLost() {
+		Product product = Product.builder()
+				.sku("SKU-RELOAD-" + UUID.randomUUID())
+				.name("Steam Deck")
+				.price(new BigDecimal("2199.00"))
+				.active(true)
+				.build();
+		ProductVariant variant = new ProductVariant();
+		variant.setColorName("Standard");
+		variant.setStock(5);
+		variant.setProduct(product);
+		product.setVariants(new ArrayList<>(List.of(variant)));
+		Product saved = productRepository.save(product);
+		Long productId = saved.getId();
+		Long variantId = saved.getVariants().get(0).getId();
+
+		AtomicReference<LowStockIndex> index = new AtomicReference<>();
+		// A checkout commits right after the reload's query read stock = 5, and its hook runs
+		// on another thread while the reload is still in progress
+		ProductRepository slowReload = (ProductRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[]{ProductRepository.class}, (proxy, method, args) -> {
+					try {
+						Object result = method.invoke(productRepository, args);
+						if (method.getName().equals("findAllStockRows")) {
+							CompletableFuture.runAsync(() -> index.get().stockDeducted(variantId, 2))
+									.get(5, TimeUnit.SECONDS);
+						}
+						return result;
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+		index.set(new LowStockIndex(slowReload, 3));
+
+		index.get().reload();
+
+		// Other tests' products may share the database, so look only at this one
+		assertThat(index.get().variants(0, 100).getContent())
+				.filteredOn(item -> item.productId().equals(productId))
+				.extracting(LowStockItem::variantId, LowStockItem::stock)
+				.containsExactly(tuple(variantId, 3));
+		assertThat(index.get().products(0, 100).getContent())
+				.filteredOn(item -> item.productId().equals(productId))
+				.extracting(LowStockItem::stock)
+				.containsExactly(3);
+	}
+}
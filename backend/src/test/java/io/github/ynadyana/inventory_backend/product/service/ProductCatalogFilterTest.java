@@ -0,0 +1,135 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.config.AsyncConfig;
+import io.github.ynadyana.inventory_backend.product.dto.CatalogPage;
+import io.github.ynadyana.inventory_backend.product.dto.ProductFilter;
+import io.github.ynadyana.inventory_backend.product.dto.ProductSummary;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@DataJpaTest
+@Import({ProductService.class, StockService.class, VariantIndex.class, LowStockIndex.class, ProductSearchIndex.class, ProductFacetService.class,
+		CatalogCache.class, ImageRenditionService.class, ImageStore.class, AsyncConfig.class, SimpleMeterRegistry.class})
+class ProductCatalogFilterTest {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductSearchIndex productSearchIndex;
+
+	@Autowired
+	private ProductFacetService productFacetService;
+
+	@Autowired
+	private CatalogCache catalogCache;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@BeforeEach
+	void setUp() {
+		// Each test rolls back its rows, so nothing cached by a previous test may be served
+		catalogCache.invalidateAll();
+		productFacetService.invalidate();
+		persist("MacBook Air", "Apple", "Laptop", "999", 5, true);
+		persist("MacBook Pro", "Apple", "Laptop", "1999", 0, true);
+		persist("ThinkPad X1", "Lenovo", "Laptop", "1499", 3, true);
+		persist("AirPods Pro", "Apple", "Audio", "249", 10, true);
+		persist("MacBook 2015", "Apple", "Laptop", "299", 1, false);
+		entityManager.flush();
+		entityManager.clear();
+		productSearchIndex.rebuild();
+	}
+
+	@Test
+	void combinesEveryFilterAndCountsFacets() {
+		ProductFilter filter = new ProductFilter(null, "laptop", "apple", null, new BigDecimal("1500"), true, true);
+
+		CatalogPage page = productService.getAllProducts(filter, PageRequest.of(0, 10, Sort.by("id").descending()), true);
+
+		assertThat(page.content()).extracting(ProductSummary::name).containsExactly("MacBook Air");
+		assertThat(page.totalElements()).isEqualTo(1);
+		// Category counts ignore the category filter, brand counts ignore the brand filter
+		assertThat(page.facets().categories()).containsExactly(entry("Audio", 1L), entry("Laptop", 1L));
+		assertThat(page.facets().brands()).containsExactly(entry("Apple", 1L), entry("Lenovo", 1L));
+	}
+
+	@Test
+	void searchKeepsRelevanceOrderWithinOtherFilters() {
+		ProductFilter filter = new ProductFilter("pro", null, "Apple", null, null, false, true);
+
+		CatalogPage page = productService.getAllProducts(filter, PageRequest.of(0, 10), true);
+
+		assertThat(page.content()).extracting(ProductSummary::name).containsExactlyInAnyOrder("MacBook Pro", "AirPods Pro");
+		assertThat(page.facets().brands()).containsEntry("Apple", 2L);
+		assertThat(page.facets().categories()).containsEntry("Laptop", 1L).containsEntry("Audio", 1L);
+	}
+
+	@Test
+	void categoryFacetsCountActiveProductsAndRefreshOnDeactivate() {
+		assertThat(productService.getFacets().categories()).containsExactly(entry("Laptop", 3L), entry("Audio", 1L));
+		assertThat(productService.getAllCategories()).containsExactly("Laptop", "Audio");
+
+		Long airPods = entityManager.createQuery("SELECT p.id FROM Product p WHERE p.name = 'AirPods Pro'", Long.class)
+				.getSingleResult();
+		productService.deactivateProduct(airPods);
+		entityManager.flush();
+
+		assertThat(productService.getAllCategories()).containsExactly("Laptop");
+		assertThat(productService.getFacets().brands()).containsExactly(entry("Apple", 2L), entry("Lenovo", 1L));
+	}
+
+	@Test
+	void listingsAreTimedPerFilterShape() {
+		double searches = listCount("search", "false");
+		double filtered = listCount("filtered", "true");
+		ProductFilter search = new ProductFilter("macbook", null, null, null, null, false, true);
+		ProductFilter byBrand = new ProductFilter(null, null, "Apple", null, null, false, true);
+
+		for (int i = 0; i < 3; i++) {
+			productService.getAllProducts(search, PageRequest.of(0, 10), false);
+		}
+		productService.getAllProducts(byBrand, PageRequest.of(0, 10), true);
+
+		assertThat(listCount("search", "false")).isEqualTo(searches + 3);
+		assertThat(listCount("filtered", "true")).isEqualTo(filtered + 1);
+	}
+
+	private double listCount(String filter, String facets) {
+		var timer = meterRegistry.find("catalog.list").tag("filter", filter).tag("facets", facets).timer();
+		return timer != null ? timer.count() : 0;
+	}
+
+	private void persist(String name, String brand, String category, String price, int stock, boolean active) {
+		Product product = Product.builder()
+				.sku("SKU-" + name.replace(' ', '-')).name(name).brand(brand).category(category)
+				.price(new BigDecimal(price)).active(active)
+				.build();
+		ProductVariant variant = new ProductVariant();
+		variant.setStock(stock);
+		variant.setProduct(product);
+		product.setVariants(new ArrayList<>(List.of(variant)));
+		entityManager.persist(product);
+	}
+}
@@ -0,0 +1,97 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.dto.CatalogPage;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(ProductFacetService.class)
+class ProductFacetServiceTest {
+
+	@Autowired
+	private ProductFacetService productFacetService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		productFacetService.invalidate();
+		persist("MacBook Air", "Apple", "Laptop", true);
+		persist("ThinkPad X1", "Lenovo", "Laptop", true);
+		persist("AirPods Pro", "Apple", "Audio", true);
+		persist("Generic Earbuds", null, "Audio", true);
+		persist("Unbranded Phone", "  ", "Phone", true);
+		persist("iPad 2012", "Apple", "Tablet", false);
+		entityManager.flush();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void countsActiveProductsMostPopulatedFirst() {
+		CatalogPage.Facets facets = productFacetService.getFacets();
+
+		// Ties are broken by name; inactive products and blank values are not counted
+		assertThat(facets.categories()).containsExactly(entry("Audio", 2L), entry("Laptop", 2L), entry("Phone", 1L));
+		assertThat(facets.brands()).containsExactly(entry("Apple", 2L), entry("Lenovo", 1L));
+	}
+
+	@Test
+	void servesCachedCountsUntilInvalidated() {
+		CatalogPage.Facets first = productFacetService.getFacets();
+		assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+
+		persist("Pixel 9", "Google", "Phone", true);
+		entityManager.flush();
+		assertThat(productFacetService.getFacets()).isSameAs(first);
+		assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+
+		productFacetService.invalidate();
+		CatalogPage.Facets refreshed = productFacetService.getFacets();
+		assertThat(statistics.getQueryExecutionCount()).isEqualTo(4);
+		assertThat(refreshed.categories()).containsExactly(entry("Audio", 2L), entry("Laptop", 2L), entry("Phone", 2L));
+		assertThat(refreshed.brands()).containsEntry("Google", 1L);
+	}
+
+	@Test
+	void queriesEveryTimeWhenTheCacheIsDisabled() {
+		ProductFacetService uncached = new ProductFacetService(productRepository, false);
+
+		uncached.getFacets();
+		persist("Pixel 9", "Google", "Phone", true);
+		entityManager.flush();
+
+		assertThat(uncached.getFacets().brands()).containsEntry("Google", 1L);
+		assertThat(statistics.getQueryExecutionCount()).isEqualTo(4);
+	}
+
+	private void persist(String name, String brand, String category, boolean active) {
+		entityManager.persist(Product.builder()
+				.sku("SKU-FACET-" + name.replace(' ', '-')).name(name).brand(brand).category(category)
+				.price(new BigDecimal("100")).active(active)
+				.build());
+	}
+}
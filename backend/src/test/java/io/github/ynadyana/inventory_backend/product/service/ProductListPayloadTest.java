@@ -0,0 +1,126 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.ynadyana.inventory_backend.config.AsyncConfig;
+import io.github.ynadyana.inventory_backend.product.dto.CatalogPage;
+import io.github.ynadyana.inventory_backend.product.dto.ProductFilter;
+import io.github.ynadyana.inventory_backend.product.dto.ProductSummary;
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import io.github.ynadyana.inventory_backend.product.repository.ProductSpecifications;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ProductService.class, StockService.class, VariantIndex.class, LowStockIndex.class, ProductSearchIndex.class, ProductFacetService.class,
+		CatalogCache.class, ImageRenditionService.class, ImageStore.class, AsyncConfig.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+class ProductListPayloadTest {
+
+	private static final int PRODUCTS = 60;
+	private static final int VARIANTS = 3;
+	private static final int ALBUM_IMAGES = 4;
+	private static final int PAGE_SIZE = 48;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CatalogCache catalogCache;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void setUp() {
+		catalogCache.invalidateAll();
+		for (int p = 0; p < PRODUCTS; p++) {
+			Product product = Product.builder()
+					.sku("SKU-" + p).name("Product " + p).brand("Brand").category("Category")
+					.description("A reasonably long marketing description for product " + p)
+					.price(new BigDecimal("100")).imageUrl("uploads/product-" + p + ".jpg").active(true)
+					.build();
+			List<ProductVariant> variants = new ArrayList<>();
+			for (int v = 0; v < VARIANTS; v++) {
+				ProductVariant variant = new ProductVariant();
+				variant.setColorName("Color " + v);
+				variant.setColorHex("#00000" + v);
+				variant.setStorage(128 * (v + 1) + "GB");
+				variant.setSku("SKU-" + p + "-" + v);
+				variant.setImageUrl("uploads/variant-" + p + "-" + v + ".jpg");
+				// The first variant has no price of its own and sells at the product price
+				variant.setPrice(v == 0 ? null : new BigDecimal(100 + 50 * v));
+				variant.setStock(v + 1);
+				for (int i = 0; i < ALBUM_IMAGES; i++) {
+					variant.getAlbumImages().add("uploads/album-" + p + "-" + v + "-" + i + ".jpg");
+				}
+				variant.setProduct(product);
+				variants.add(variant);
+			}
+			product.setVariants(variants);
+			entityManager.persist(product);
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void listRowsAggregateVariantsInOneQueryWithASmallerPayload() throws Exception {
+		ProductFilter filter = new ProductFilter(null, null, null, null, null, false, true);
+		Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("id").descending());
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// Before: full entities, variants and album images loaded per product
+		statistics.clear();
+		Page<Product> entities = productRepository.findAll(ProductSpecifications.matching(filter, null), pageable);
+		long entityStatements = statistics.getPrepareStatementCount();
+		int entityBytes = objectMapper.writeValueAsBytes(entities.getContent()).length;
+		entityManager.clear();
+
+		// After: one aggregate query for the page plus its count
+		statistics.clear();
+		CatalogPage page = productService.getAllProducts(filter, pageable, false);
+		long summaryStatements = statistics.getPrepareStatementCount();
+		int summaryBytes = objectMapper.writeValueAsBytes(page.content()).length;
+
+		assertThat(page.content()).hasSize(PAGE_SIZE);
+		assertThat(page.totalElements()).isEqualTo(PRODUCTS);
+		ProductSummary first = page.content().get(0);
+		assertThat(first.name()).isEqualTo("Product " + (PRODUCTS - 1));
+		assertThat(first.totalStock()).isEqualTo(1 + 2 + 3);
+		assertThat(first.minPrice()).isEqualByComparingTo("100");
+		assertThat(first.maxPrice()).isEqualByComparingTo("200");
+
+		assertThat(summaryStatements).isEqualTo(2);
+		assertThat(entityStatements).isGreaterThan(summaryStatements);
+		assertThat(summaryBytes).isLessThan(entityBytes / 3);
+	}
+}
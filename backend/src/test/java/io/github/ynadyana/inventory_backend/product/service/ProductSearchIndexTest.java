@@ -0,0 +1,90 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+	private ProductSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ProductSearchIndex(null, true);
+		index.put(new ProductSearchIndex.Document(1L, "iPhone 15 Pro", "Apple", "Phones", "Titanium design", true));
+		index.put(new ProductSearchIndex.Document(2L, "Galaxy S24", "Samsung", "Phones", "Works great with an iPhone charger", true));
+		index.put(new ProductSearchIndex.Document(3L, "WH-1000XM5 Headphones", "Sony", "Audio", "Noise cancelling", true));
+		index.put(new ProductSearchIndex.Document(4L, "iPhone 12", "Apple", "Phones", "Refurbished", false));
+	}
+
+	private List<Long> search(String query, boolean activeOnly) {
+		return index.search(query, activeOnly, 10).ids();
+	}
+
+	@Test
+	void ranksNameMatchesAboveDescriptionMatches() {
+		assertThat(search("iphone", true)).containsExactly(1L, 2L);
+
+		ProductSearchIndex.Hits firstOnly = index.search("iphone", true, 1);
+		assertThat(firstOnly.ids()).containsExactly(1L);
+		assertThat(firstOnly.total()).isEqualTo(2);
+	}
+
+	@Test
+	void matchesPrefixesTyposAndEveryToken() {
+		assertThat(search("iph", true)).containsExactly(1L, 2L);
+		assertThat(search("headphnes", true)).containsExactly(3L);
+		assertThat(search("apple phones", true)).containsExactly(1L);
+		assertThat(search("apple audio", true)).isEmpty();
+	}
+
+	@Test
+	void hidesInactiveProductsUnlessAskedAndFollowsUpdates() {
+		assertThat(search("refurbished", true)).isEmpty();
+		assertThat(search("refurbished", false)).containsExactly(4L);
+
+		index.put(new ProductSearchIndex.Document(3L, "QuietComfort Ultra", "Bose", "Audio", "Noise cancelling", true));
+		assertThat(search("sony", true)).isEmpty();
+		assertThat(search("quietcomfort", true)).containsExactly(3L);
+	}
+
+	@Test
+	void writesDuringARebuildOutliveItsSnapshot() {
+		List<ProductRepository.SearchRow> snapshot = List.of(
+				new Row(1L, "iPhone 15 Pro", "Apple", "Phones", "Titanium design", true),
+				new Row(2L, "Galaxy S24", "Samsung", "Phones", "", true));
+		AtomicReference<ProductSearchIndex> rebuilding = new AtomicReference<>();
+		// A rename and a delete commit after the rebuild's query read the rows, and their hooks
+		// run on another thread while the rebuild is still in progress
+		ProductRepository slowRebuild = (ProductRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[]{ProductRepository.class}, (proxy, method, args) -> {
+					if (!method.getName().equals("findAllSearchRows")) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					CompletableFuture.runAsync(() -> {
+						rebuilding.get().put(new ProductSearchIndex.Document(1L, "iPhone 16", "Apple", "Phones", "", true));
+						rebuilding.get().remove(2L);
+					}).get(5, TimeUnit.SECONDS);
+					return snapshot;
+				});
+		rebuilding.set(new ProductSearchIndex(slowRebuild, true));
+
+		rebuilding.get().rebuild();
+
+		assertThat(rebuilding.get().isReady()).isTrue();
+		assertThat(rebuilding.get().search("iphone 16", true, 10).ids()).containsExactly(1L);
+		assertThat(rebuilding.get().search("titanium", true, 10).ids()).isEmpty();
+		assertThat(rebuilding.get().search("galaxy", true, 10).ids()).isEmpty();
+	}
+
+	private record Row(Long getId, String getName, String getBrand, String getCategory, String getDescription,
+					   Boolean getActive) implements ProductRepository.SearchRow {}
+}
@@ -0,0 +1,156 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import io.github.ynadyana.inventory_backend.product.model.StockLedgerCheckpoint;
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import io.github.ynadyana.inventory_backend.product.repository.ProductVariantRepository;
+import io.github.ynadyana.inventory_backend.product.repository.StockLedgerCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockLedgerTest {
+
+	@TempDir
+	Path dir;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductVariantRepository productVariantRepository;
+
+	@Autowired
+	private StockLedgerCheckpointRepository checkpointRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Long variantId;
+
+	@BeforeEach
+	void setUp() {
+		checkpointRepository.deleteAll();
+		Product product = Product.builder()
+				.sku("SKU-LEDGER-" + UUID.randomUUID())
+				.name("Pixel 9")
+				.price(new BigDecimal("3999.00"))
+				.active(true)
+				.build();
+		ProductVariant variant = new ProductVariant();
+		variant.setColorName("Obsidian");
+		variant.setStock(10);
+		variant.setProduct(product);
+		product.setVariants(new ArrayList<>(List.of(variant)));
+		variantId = productRepository.save(product).getVariants().get(0).getId();
+	}
+
+	@Test
+	void replaysJournaledReservationsAfterACrash() throws Exception {
+		StockLedger ledger = ledger();
+		assertThat(ledger.tryReserve(variantId, 3)).isTrue();
+		assertThat(ledger.tryReserve(variantId, 2)).isTrue();
+		// The process dies mid-append: the torn record has no terminator and must be ignored
+		Files.writeString(journal(), "3 " + variantId + " 4", StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+
+		StockLedger restarted = ledger();
+		assertThat(stock()).isEqualTo(5);
+		assertThat(checkpointRepository.findById(StockLedgerCheckpoint.SINGLETON_ID).orElseThrow().getLastSequence())
+				.isEqualTo(2);
+		assertThat(restarted.tryReserve(variantId, 6)).isFalse();
+		assertThat(restarted.tryReserve(variantId, 5)).isTrue();
+
+		// Sequences continue past the checkpoint, so a second crash replays only the new record
+		ledger();
+		assertThat(stock()).isZero();
+	}
+
+	@Test
+	void reconcilesCountersAgainstTheDatabaseOnStartup() throws Exception {
+		StockLedger ledger = ledger();
+		assertThat(ledger.tryReserve(variantId, 4)).isTrue();
+		ledger.shutdown();
+		assertThat(stock()).isEqualTo(6);
+
+		// Changed behind the ledger's back while it was down
+		ProductVariant variant = productVariantRepository.findById(variantId).orElseThrow();
+		variant.setStock(2);
+		productVariantRepository.save(variant);
+
+		StockLedger restarted = ledger();
+		assertThat(restarted.tryReserve(variantId, 3)).isFalse();
+		assertThat(restarted.tryReserve(variantId, 2)).isTrue();
+	}
+
+	@Test
+	void releasesTheReservationWhenTheOrderRollsBack() throws Exception {
+		StockLedger ledger = ledger();
+		DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+		beans.registerSingleton("stockLedger", ledger);
+		StockService stockService = new StockService(productVariantRepository,
+				beans.getBeanProvider(StockLedger.class), new LowStockIndex(productRepository, 3));
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			assertThat(stockService.tryDeduct(variantId, 7)).isTrue();
+			status.setRollbackOnly();
+		});
+
+		assertThat(ledger.tryReserve(variantId, 10)).isTrue();
+		ledger.flush();
+		assertThat(stock()).isZero();
+	}
+
+	@Test
+	void deletesFlushedJournalSegmentsUnderSteadyLoad() throws Exception {
+		StockLedger ledger = ledger();
+		for (int i = 0; i < 3; i++) {
+			assertThat(ledger.tryReserve(variantId, 1)).isTrue();
+			ledger.flush();
+		}
+		assertThat(ledger.tryReserve(variantId, 1)).isTrue();
+
+		// Only the live journal is left, holding just the reservation made since the last flush
+		try (Stream<Path> files = Files.list(dir)) {
+			assertThat(files).containsExactly(journal());
+		}
+		assertThat(Files.readAllLines(journal())).containsExactly("4 " + variantId + " 1;");
+		assertThat(stock()).isEqualTo(7);
+	}
+
+	private StockLedger ledger() throws Exception {
+		StockLedger ledger = new StockLedger(productVariantRepository, checkpointRepository, transactionManager,
+				journal().toString(), false);
+		ledger.recover();
+		return ledger;
+	}
+
+	private Path journal() {
+		return dir.resolve("stock-ledger.journal");
+	}
+
+	private int stock() {
+		return productVariantRepository.findById(variantId).orElseThrow().getStock();
+	}
+}
@@ -0,0 +1,94 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import io.github.ynadyana.inventory_backend.product.repository.ProductRepository;
+import io.github.ynadyana.inventory_backend.product.repository.ProductVariantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({StockService.class, LowStockIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockServiceConcurrencyTest {
+
+	private static final int THREADS = 200;
+	private static final int INITIAL_STOCK = 50;
+
+	@Autowired
+	private StockService stockService;
+
+	@Autowired
+	private LowStockIndex lowStockIndex;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductVariantRepository productVariantRepository;
+
+	@Test
+	void concurrentDeductionsNeverOversell() throws Exception {
+		Product product = Product.builder()
+				.sku("SKU-STRESS")
+				.name("RTX 4090")
+				.price(new BigDecimal("7999.00"))
+				.active(true)
+				.build();
+		ProductVariant variant = new ProductVariant();
+		variant.setColorName("Black");
+		variant.setStock(INITIAL_STOCK);
+		variant.setProduct(product);
+		product.setVariants(new ArrayList<>(List.of(variant)));
+		Long variantId = productRepository.save(product).getVariants().get(0).getId();
+		lowStockIndex.reload();
+		assertThat(lowStockIndex.variants(0, 10).getContent()).isEmpty();
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger sold = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				if (stockService.tryDeduct(variantId, 1)) {
+					sold.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> f : futures) {
+			f.get(30, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		int remaining = productVariantRepository.findById(variantId).orElseThrow().getStock();
+		assertThat(sold.get()).isEqualTo(INITIAL_STOCK);
+		assertThat(remaining).isZero();
+		// Every committed deduction reached the low-stock index
+		assertThat(lowStockIndex.variants(0, 10).getContent())
+				.singleElement()
+				.satisfies(item -> {
+					assertThat(item.variantId()).isEqualTo(variantId);
+					assertThat(item.stock()).isZero();
+				});
+		assertThat(lowStockIndex.products(0, 10).getTotalElements()).isEqualTo(1);
+	}
+}
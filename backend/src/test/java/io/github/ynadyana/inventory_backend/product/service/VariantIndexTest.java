@@ -0,0 +1,111 @@
+package io.github.ynadyana.inventory_backend.product.service;
+
+import io.github.ynadyana.inventory_backend.product.model.Product;
+import io.github.ynadyana.inventory_backend.product.model.ProductVariant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VariantIndexTest {
+
+	private final VariantIndex index = new VariantIndex();
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void resolvesEveryFormTheStorefrontSends() {
+		Product product = product(variant(10L, "Midnight", "512GB", "MB-512"), variant(11L, "Standard", "1TB", null),
+				variant(12L, "Space - Grey", null, null));
+
+		assertThat(index.resolve(product, index.stamp(), 10L, null, null)).contains(10L);
+		assertThat(index.resolve(product, index.stamp(), null, " mb-512 ", null)).contains(10L);
+		assertThat(index.resolve(product, index.stamp(), null, null, "midnight - 512gb")).contains(10L);
+		assertThat(index.resolve(product, index.stamp(), null, null, "Midnight")).contains(10L);
+		assertThat(index.resolve(product, index.stamp(), null, null, "1TB")).contains(11L);
+		assertThat(index.resolve(product, index.stamp(), null, null, "Standard - 1TB")).contains(11L);
+		assertThat(index.resolve(product, index.stamp(), null, null, null)).contains(11L);
+		// A color containing the " - " separator no longer breaks the lookup
+		assertThat(index.resolve(product, index.stamp(), null, null, "Space - Grey")).contains(12L);
+		assertThat(index.resolve(product, index.stamp(), 99L, null, null)).isEmpty();
+	}
+
+	@Test
+	void aCheckoutThatLoadedBeforeAVariantWriteCommitsDoesNotCacheTheOldVariants() {
+		Product before = product(variant(10L, "Midnight", null, null));
+		assertThat(index.resolve(before, index.stamp(), null, null, "Midnight")).contains(10L);
+
+		// Checkout reads the stamp and loads the product...
+		long loadedAt = index.stamp();
+		Product loaded = product(variant(10L, "Midnight", null, null));
+
+		// ...then an admin replaces variant 10 with 20 and 21, and commits
+		TransactionSynchronizationManager.initSynchronization();
+		index.invalidate(1L);
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+		// ...and only now resolves: it answers from what it loaded, without caching that
+		assertThat(index.resolve(loaded, loadedAt, null, null, "Midnight")).contains(10L);
+
+		Product after = product(variant(20L, "Midnight", null, null), variant(21L, "Starlight", null, null));
+		long nextCheckout = index.stamp();
+		assertThat(index.resolve(after, nextCheckout, null, null, "Midnight")).contains(20L);
+		assertThat(index.resolve(after, nextCheckout, 21L, null, null)).contains(21L);
+		assertThat(index.resolve(after, nextCheckout, 10L, null, null)).isEmpty();
+	}
+
+	@Test
+	void aLoadBeforeTheWriteIsNotCachedEvenIfTheCommitComesFirst() {
+		long loadedAt = index.stamp();
+		Product loaded = product(variant(10L, "Midnight", null, null));
+
+		TransactionSynchronizationManager.initSynchronization();
+		index.invalidate(1L);
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+		assertThat(index.resolve(loaded, loadedAt, null, null, "Midnight")).contains(10L);
+		// Nothing stale was cached, so the next checkout's product decides
+		Product after = product(variant(20L, "Midnight", null, null));
+		assertThat(index.resolve(after, index.stamp(), null, null, "Midnight")).contains(20L);
+	}
+
+	@Test
+	void aMissOnTheCachedMapIsRetriedAgainstTheLoadedProduct() {
+		assertThat(index.resolve(product(variant(10L, "Midnight", null, null)), index.stamp(), null, null, "Midnight")).contains(10L);
+
+		// A variant added without going through ProductService (another instance, direct SQL)
+		Product after = product(variant(10L, "Midnight", null, null), variant(11L, "Starlight", null, null));
+		assertThat(index.resolve(after, index.stamp(), null, null, "Starlight")).contains(11L);
+		// The rebuilt map replaced the cached one
+		assertThat(index.resolve(product(), index.stamp(), 11L, null, null)).contains(11L);
+	}
+
+	private static Product product(ProductVariant... variants) {
+		Product product = Product.builder().id(1L).name("iPhone").build();
+		product.setVariants(new ArrayList<>(List.of(variants)));
+		return product;
+	}
+
+	private static ProductVariant variant(Long id, String color, String storage, String sku) {
+		ProductVariant variant = new ProductVariant();
+		variant.setId(id);
+		variant.setColorName(color);
+		variant.setStorage(storage);
+		variant.setSku(sku);
+		return variant;
+	}
+}
@@ -0,0 +1,71 @@
+package io.github.ynadyana.inventory_backend.security;
+
+import io.github.ynadyana.inventory_backend.user.AppUser;
+import io.github.ynadyana.inventory_backend.user.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+	private static final String OLD_SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+	private static final String NEW_SECRET = "6A586E3272357538782F413F4428472B4B6250645367566B5970404E63526655";
+	private static final long DAY_MS = 86_400_000L;
+
+	private final AppUser user = AppUser.builder()
+			.id(7L).email("ana@example.com").username("ana").role(Role.STAFF).build();
+
+	@Test
+	void tokensSignedUnderAPreviousKeyStillVerifyAfterRotation() {
+		String issuedBeforeRotation = new JwtService(OLD_SECRET, "k1", "", DAY_MS).generateToken(user);
+		JwtService rotated = new JwtService(NEW_SECRET, "k2", "k1=" + OLD_SECRET, DAY_MS);
+
+		Claims claims = rotated.parseClaims(issuedBeforeRotation);
+
+		assertThat(claims.getSubject()).isEqualTo("ana@example.com");
+		assertThat(rotated.toPrincipal(claims))
+				.satisfies(principal -> {
+					assertThat(principal.getId()).isEqualTo(7L);
+					assertThat(principal.getRole()).isEqualTo(Role.STAFF);
+					assertThat(principal.getRealUsername()).isEqualTo("ana");
+				});
+		// New tokens are signed with the new key and verify on their own
+		assertThat(rotated.parseClaims(rotated.generateToken(user)).getSubject()).isEqualTo("ana@example.com");
+	}
+
+	@Test
+	void rejectsTokensFromARetiredKey() {
+		String issuedBeforeRotation = new JwtService(OLD_SECRET, "k1", "", DAY_MS).generateToken(user);
+		JwtService retired = new JwtService(NEW_SECRET, "k2", "", DAY_MS);
+
+		assertThatThrownBy(() -> retired.parseClaims(issuedBeforeRotation))
+				.isInstanceOf(JwtException.class)
+				.hasMessageContaining("k1");
+	}
+
+	@Test
+	void tokensWithoutAKeyIdVerifyWithTheCurrentKey() {
+		String legacy = Jwts.builder()
+				.setSubject("ana@example.com")
+				.setIssuedAt(new Date())
+				.setExpiration(new Date(System.currentTimeMillis() + DAY_MS))
+				.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(OLD_SECRET)), SignatureAlgorithm.HS256)
+				.compact();
+		JwtService service = new JwtService(OLD_SECRET, "k1", "", DAY_MS);
+
+		Claims claims = service.parseClaims(legacy);
+
+		assertThat(claims.getSubject()).isEqualTo("ana@example.com");
+		// No uid/role claims: the filter falls back to loading the user
+		assertThat(service.toPrincipal(claims)).isNull();
+	}
+}
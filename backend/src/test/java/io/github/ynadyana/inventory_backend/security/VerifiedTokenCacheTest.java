@@ -0,0 +1,65 @@
+package io.github.ynadyana.inventory_backend.security;
+
+import io.github.ynadyana.inventory_backend.user.AppUser;
+import io.github.ynadyana.inventory_backend.user.Role;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTest {
+
+	private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final AppUser user = AppUser.builder()
+			.id(7L).email("ana@example.com").username("ana").role(Role.CUSTOMER).build();
+
+	@Test
+	void repeatTokensAreVerifiedOnce() {
+		JwtService jwtService = new JwtService(SECRET, "k1", "", 60_000);
+		VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, registry, true, 100);
+		String token = jwtService.generateToken(user);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(cache.verify(token).getSubject()).isEqualTo("ana@example.com");
+		}
+
+		assertThat(gets("miss")).isEqualTo(1);
+		assertThat(gets("hit")).isEqualTo(2);
+	}
+
+	@Test
+	void tamperedTokensAreRejectedAndNotCached() {
+		JwtService jwtService = new JwtService(SECRET, "k1", "", 60_000);
+		VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, registry, true, 100);
+		String token = jwtService.generateToken(user);
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+		for (int i = 0; i < 2; i++) {
+			assertThatThrownBy(() -> cache.verify(tampered)).isInstanceOf(JwtException.class);
+		}
+
+		assertThat(gets("miss")).isEqualTo(2);
+		assertThat(gets("hit")).isZero();
+	}
+
+	@Test
+	void cachedClaimsExpireWithTheToken() throws InterruptedException {
+		JwtService jwtService = new JwtService(SECRET, "k1", "", 1_000);
+		VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, registry, true, 100);
+		String token = jwtService.generateToken(user);
+		assertThat(cache.verify(token).getSubject()).isEqualTo("ana@example.com");
+
+		Thread.sleep(1_500);
+
+		assertThatThrownBy(() -> cache.verify(token)).isInstanceOf(ExpiredJwtException.class);
+	}
+
+	private double gets(String result) {
+		return registry.get("cache.gets").tag("cache", "jwt.tokens").tag("result", result).functionCounter().count();
+	}
+}
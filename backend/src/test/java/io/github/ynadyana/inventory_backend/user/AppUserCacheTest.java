@@ -0,0 +1,40 @@
+package io.github.ynadyana.inventory_backend.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({AppUserCache.class, CustomUserDetailsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AppUserCacheTest {
+
+	@Autowired
+	private AppUserCache appUserCache;
+
+	@Autowired
+	private CustomUserDetailsService userDetailsService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void passwordRehashEvictsTheCachedPrincipal() {
+		userRepository.save(AppUser.builder()
+				.email("rehash@example.com").password("$2a$10$old").username("rehash").role(Role.CUSTOMER)
+				.build());
+		assertThat(appUserCache.get("rehash@example.com").getPassword()).isEqualTo("$2a$10$old");
+
+		// What DaoAuthenticationProvider does after a login against a weaker hash
+		UserDetails loaded = userDetailsService.loadUserByUsername("rehash@example.com");
+		userDetailsService.updatePassword(loaded, "$2a$12$new");
+
+		assertThat(appUserCache.get("rehash@example.com").getPassword()).isEqualTo("$2a$12$new");
+	}
+}
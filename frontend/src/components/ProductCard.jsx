@@ -37,7 +37,8 @@ const ProductCard = ({ product, onQuickView }) => {
   };
 
   // Main Image
-  const currentImage = product.imageUrl;
+  // 480px rendition once the server has made it, the original until then
+  const currentImage = product.cardUrl || product.imageUrl;
 
   return (
     <div 
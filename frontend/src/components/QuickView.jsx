@@ -1,8 +1,11 @@
 import { X, Minus, Plus, Heart, ShoppingCart, CheckCircle, AlertCircle } from 'lucide-react';
 import { useState, useEffect } from 'react';
 import { useCart } from '../context/CartContext';
+import api from '../lib/axios';
 
-const QuickView = ({ product, onClose }) => {
+const QuickView = ({ product: summary, onClose }) => {
+  // Catalog lists only carry summaries; variants and album images come from the detail endpoint
+  const [product, setProduct] = useState(summary);
   const [qty, setQty] = useState(1);
   const { addToCart } = useCart();
 
@@ -14,6 +17,16 @@ const QuickView = ({ product, onClose }) => {
 
   const variants = product.variants || [];
 
+  useEffect(() => {
+    setProduct(summary);
+    if (summary.variants) return;
+    let cancelled = false;
+    api.get(`/products/${summary.id}`)
+      .then(res => { if (!cancelled) setProduct(res.data); })
+      .catch(err => console.error("Failed to load product details", err));
+    return () => { cancelled = true; };
+  }, [summary]);
+
   // --- 1. GROUPING LOGIC ---
   // Get unique colors to display as circles 
   const uniqueColors = Array.from(new Map(variants.filter(v => v.colorHex).map(v => [v.colorHex, v])).values());
@@ -48,7 +61,8 @@ const QuickView = ({ product, onClose }) => {
     return path.startsWith('http') ? path : `http://localhost:8080/${path}`;
   };
 
-  const currentImage = hoveredImage || (selectedVariant ? selectedVariant.imageUrl : null) || product.imageUrl;
+  const detailImage = (item) => item?.imageRenditions?.detailUrl || item?.imageUrl;
+  const currentImage = hoveredImage || (selectedVariant ? detailImage(selectedVariant) : null) || detailImage(product);
 
   return (
     <div className="fixed inset-0 z-50 flex items-center justify-center p-4 bg-black/60 backdrop-blur-sm animate-in fade-in duration-200">
@@ -143,6 +143,7 @@ const Checkout = () => {
                     productId: item.id,
                     quantity: item.quantity || 1,
                     price: item.selectedVariant?.price || item.price,
+                    variantId: item.selectedVariant?.id,
                     variantName: backendVariantString 
                 };
             })
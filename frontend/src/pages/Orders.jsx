@@ -3,8 +3,13 @@ import api from '../lib/axios';
 import { ShoppingBag, ChevronDown, ChevronUp, Store, CheckCircle, Calendar, Package, Filter, ArrowUpDown, Search, XCircle, Clock, Truck } from 'lucide-react';
 import { Link } from 'react-router-dom';
 
+// Orders come a page at a time, newest first; "Load more" follows the server's cursor
+const PAGE_SIZE = 20;
+
 const Orders = () => {
   const [orders, setOrders] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [products, setProducts] = useState({});
   const [loading, setLoading] = useState(true);
   
@@ -17,10 +22,21 @@ const Orders = () => {
     fetchData();
   }, []);
 
+  // The status filter is applied by the server, so each tab pages through its own orders
+  useEffect(() => {
+    if (!loading) fetchOrders();
+  }, [statusFilter]);
+
+  const orderParams = (cursor) => ({
+    limit: PAGE_SIZE,
+    status: statusFilter === 'ALL' ? undefined : statusFilter,
+    cursor: cursor || undefined
+  });
+
   const fetchData = async () => {
     try {
       const [orderRes, productRes] = await Promise.all([
-        api.get('/orders'),
+        api.get('/orders', { params: orderParams() }),
         api.get('/products')
       ]);
       
@@ -31,6 +47,7 @@ const Orders = () => {
       const rawOrders = Array.isArray(orderRes.data) ? orderRes.data : (orderRes.data.content || []);
       
       setOrders(rawOrders);
+      setNextCursor(orderRes.headers['x-next-cursor'] || null);
       setProducts(productMap);
     } catch (error) {
       console.error("Failed to fetch data", error);
@@ -39,6 +56,19 @@ const Orders = () => {
     }
   };
 
+  const fetchOrders = async (cursor) => {
+    setLoadingMore(true);
+    try {
+      const res = await api.get('/orders', { params: orderParams(cursor) });
+      setOrders(prev => cursor ? [...prev, ...res.data] : res.data);
+      setNextCursor(res.headers['x-next-cursor'] || null);
+    } catch (error) {
+      console.error("Failed to fetch orders", error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const toggleOrder = (orderId) => {
     setExpandedOrders(prev => ({ ...prev, [orderId]: !prev[orderId] }));
   };
@@ -209,9 +239,9 @@ const Orders = () => {
                             <div key={index} className="flex gap-5 group">
                                 {/* Product Image */}
                                 <div className="w-20 h-20 flex-shrink-0 border border-gray-100 rounded-lg overflow-hidden bg-gray-50 flex items-center justify-center">
-                                    {getImageUrl(product.imageUrl) ? (
+                                    {getImageUrl(product.thumbnailUrl || product.imageUrl) ? (
                                         <img 
-                                            src={getImageUrl(product.imageUrl)} 
+                                            src={getImageUrl(product.thumbnailUrl || product.imageUrl)} 
                                             alt={productName} 
                                             className="w-full h-full object-cover mix-blend-multiply group-hover:scale-105 transition-transform duration-500"
                                         />
@@ -267,6 +297,17 @@ const Orders = () => {
                 </div>
             );
             })}
+            {nextCursor && (
+                <div className="flex justify-center">
+                    <button
+                      onClick={() => fetchOrders(nextCursor)}
+                      disabled={loadingMore}
+                      className="px-5 py-2 bg-white border border-gray-300 text-gray-700 text-sm font-bold rounded-lg hover:bg-gray-50 transition shadow-sm disabled:opacity-50"
+                    >
+                        {loadingMore ? 'Loading...' : 'Load more orders'}
+                    </button>
+                </div>
+            )}
         </div>
       )}
     </div>
@@ -13,6 +13,8 @@ const ProductsPage = () => {
     
     // --- STATE ---
     const [products, setProducts] = useState([]);
+    const [totalProducts, setTotalProducts] = useState(0);
+    const [facets, setFacets] = useState(null);
     const [loading, setLoading] = useState(true);
     
     // UI States
@@ -25,37 +27,45 @@ const ProductsPage = () => {
 
     const categoryFilter = searchParams.get('category');
     const brandFilter = searchParams.get('brand');
+    const searchFilter = searchParams.get('search');
+    const minPrice = searchParams.get('minPrice');
+    const maxPrice = searchParams.get('maxPrice');
+    const inStockOnly = searchParams.get('inStock') === 'true';
 
     // --- FETCH DATA ---
-    useEffect(() => { fetchProducts(); }, [categoryFilter, brandFilter]);
+    useEffect(() => { fetchProducts(); }, [categoryFilter, brandFilter, searchFilter, minPrice, maxPrice, inStockOnly, sortBy]);
+
+    // UI sort option -> server sort parameter
+    const SERVER_SORT = { 'price-low': 'price-asc', 'price-high': 'price-desc', 'name-az': 'name' };
 
     const fetchProducts = async () => {
         setLoading(true);
         try {
-            const res = await api.get('/products');
-            let data = Array.isArray(res.data) ? res.data : (res.data.content || []);
-            
-            // Client-side filtering
-            if (categoryFilter) data = data.filter(p => p.category?.toLowerCase() === categoryFilter.toLowerCase());
-            if (brandFilter) data = data.filter(p => p.brand?.toLowerCase() === brandFilter.toLowerCase());
-            
-            setProducts(data);
+            // Filtering, sorting and facet counts all happen on the server
+            const res = await api.get('/products', {
+                params: {
+                    category: categoryFilter || undefined,
+                    brand: brandFilter || undefined,
+                    search: searchFilter || undefined,
+                    minPrice: minPrice || undefined,
+                    maxPrice: maxPrice || undefined,
+                    inStock: inStockOnly || undefined,
+                    sort: SERVER_SORT[sortBy],
+                    facets: true,
+                    size: 48
+                }
+            });
+            setProducts(res.data.content || []);
+            setTotalProducts(res.data.totalElements || 0);
+            setFacets(res.data.facets);
         } catch (err) { console.error(err); } 
         finally { setLoading(false); }
     };
 
-    // --- SORTING ---
-    const getSortedProducts = () => {
-        let sorted = [...products];
-        switch (sortBy) {
-            case 'price-low': return sorted.sort((a, b) => (a.price || 0) - (b.price || 0));
-            case 'price-high': return sorted.sort((a, b) => (b.price || 0) - (a.price || 0));
-            case 'name-az': return sorted.sort((a, b) => a.name.localeCompare(b.name));
-            default: return sorted;
-        }
-    };
-
-    const activeProducts = getSortedProducts();
+    const activeProducts = products;
+    const categoryChips = facets && Object.keys(facets.categories).length > 0
+        ? Object.keys(facets.categories).slice(0, 4)
+        : ['Laptop', 'Audio', 'Accessories', 'GPU'];
     const getImageUrl = (path) => path ? `http://localhost:8080/${path}` : null;
     const clearFilters = () => setSearchParams({});
 
@@ -82,7 +92,7 @@ const ProductsPage = () => {
                         Upgrade your lifestyle with the latest gadgets. From flagship smartphones to pro-level peripherals, experience innovation that defines the future.
                     </p>
                     <div className="flex gap-3">
-                        {['Laptop', 'Audio', 'Accessories', 'GPU'].map(cat => (
+                        {categoryChips.map(cat => (
                             <button 
                                 key={cat}
                                 onClick={() => setSearchParams({ category: cat.toLowerCase() })}
@@ -91,7 +101,7 @@ const ProductsPage = () => {
                                 {cat}
                             </button>
                         ))}
-                        {(categoryFilter || brandFilter) && (
+                        {(categoryFilter || brandFilter || searchFilter) && (
                             <button onClick={clearFilters} className="px-4 py-2 rounded-full bg-red-500/20 hover:bg-red-500/30 text-red-200 border border-red-500/30 text-sm font-medium transition">
                                 Clear Filters
                             </button>
@@ -105,7 +115,7 @@ const ProductsPage = () => {
                 {/* --- 2. CONTROL BAR (Sticky & Always Visible) --- */}
                 <div className="flex flex-col md:flex-row justify-between items-center bg-white p-4 rounded-xl border border-slate-200 shadow-sm mb-8 gap-4 sticky top-4 z-30">
                     <div className="flex items-center gap-2 text-slate-600 font-medium">
-                        <span className="text-slate-900 font-bold">{activeProducts.length}</span> Gadgets Found
+                        <span className="text-slate-900 font-bold">{totalProducts}</span> Gadgets Found
                     </div>
 
                     <div className="flex items-center gap-3 w-full md:w-auto justify-between md:justify-end">
@@ -138,11 +148,8 @@ const ProductsPage = () => {
                     <div className={viewMode === 'grid' ? "grid grid-cols-2 md:grid-cols-3 lg:grid-cols-4 gap-6" : "space-y-4"}>
                         {activeProducts.map(p => {
                             
-                            // Check if variants exist and sum their stock. If no variants, use base stock.
-                            const hasVariants = p.variants && p.variants.length > 0;
-                            const totalStock = hasVariants 
-                                ? p.variants.reduce((sum, v) => sum + (v.stock || 0), 0) 
-                                : (p.stock || 0);
+                            // Summed over variants by the server
+                            const totalStock = p.totalStock || 0;
 
                             return viewMode === 'grid' ? (
                                 // --- GRID VIEW ---
@@ -155,7 +162,7 @@ const ProductsPage = () => {
                                 // --- LIST VIEW (Compact Row) ---
                                 <div key={p.id} className="group flex flex-col md:flex-row items-center bg-white border border-slate-200 rounded-xl p-4 hover:shadow-lg transition-all duration-300 hover:border-blue-200">
                                     <div className="w-full md:w-48 h-48 md:h-32 bg-slate-100 rounded-lg overflow-hidden flex-shrink-0 relative cursor-pointer" onClick={() => setSelectedProduct(p)}>
-                                        {getImageUrl(p.imageUrl) ? <img src={getImageUrl(p.imageUrl)} alt={p.name} className="w-full h-full object-cover group-hover:scale-105 transition-transform duration-500" /> : <div className="flex items-center justify-center h-full text-slate-300"><Package className="w-8 h-8" /></div>}
+                                        {getImageUrl(p.cardUrl || p.imageUrl) ? <img src={getImageUrl(p.cardUrl || p.imageUrl)} alt={p.name} className="w-full h-full object-cover group-hover:scale-105 transition-transform duration-500" /> : <div className="flex items-center justify-center h-full text-slate-300"><Package className="w-8 h-8" /></div>}
                                         
                                         {totalStock <= 0 && <div className="absolute inset-0 bg-white/60 backdrop-blur-[1px] flex items-center justify-center"><span className="bg-slate-900 text-white text-xs font-bold px-3 py-1 rounded-full">Out of Stock</span></div>}
                                     </div>
@@ -14,6 +14,7 @@ const Dashboard = () => {
     // --- STATE ---
     const [stats, setStats] = useState({ totalRevenue: 0, totalOrders: 0, activeProducts: 0 });
     const [lowStockItems, setLowStockItems] = useState([]);
+    const [lowStockCount, setLowStockCount] = useState(0);
     const [recentActivity, setRecentActivity] = useState([]);
     const [chartData, setChartData] = useState([]);
     const [loading, setLoading] = useState(true);
@@ -28,44 +29,23 @@ const Dashboard = () => {
 
     const fetchDashboardData = async () => {
         try {
-            const [orderRes, productRes] = await Promise.all([
-                api.get('/orders'),
-                api.get('/products')
+            // Totals, chart, recent orders and low stock all come pre-computed from the server
+            const [dashboardRes, lowStockRes] = await Promise.all([
+                api.get('/admin/dashboard', { params: { days: 7 } }),
+                api.get('/products/low-stock', { params: { size: 4 } })
             ]);
 
-            const orders = Array.isArray(orderRes.data) ? orderRes.data : (orderRes.data.content || []);
-            const products = Array.isArray(productRes.data) ? productRes.data : (productRes.data.content || []);
+            const dashboard = dashboardRes.data;
 
-            // --- DATA PROCESSING ---
-            const revenue = orders
-                .filter(o => o.status !== 'CANCELLED')
-                .reduce((sum, o) => sum + (o.totalAmount || 0), 0);
+            const chartData = dashboard.daily.map(point => ({
+                label: new Date(point.date + 'T00:00:00').toLocaleDateString('en-US', { weekday: 'short' }),
+                value: Number(point.revenue) || 0
+            }));
 
-            const lowStock = products.map(p => {
-                const totalStock = p.variants?.reduce((acc, v) => acc + (v.stock || 0), 0) || p.stock || 0;
-                return { ...p, totalStock };
-            }).filter(p => p.totalStock <= 3).slice(0, 4);
-
-            const recent = [...orders].sort((a, b) => b.id - a.id).slice(0, 5);
-
-            const last7Days = [...Array(7)].map((_, i) => {
-                const d = new Date();
-                d.setDate(d.getDate() - (6 - i));
-                return d.toLocaleDateString();
-            });
-
-            const chartData = last7Days.map(date => {
-                const dayRevenue = orders
-                    .filter(o => new Date(o.orderDate).toLocaleDateString() === date && o.status !== 'CANCELLED')
-                    .reduce((sum, o) => sum + (o.totalAmount || 0), 0);
-                
-                const dayName = new Date(date).toLocaleDateString('en-US', { weekday: 'short' });
-                return { label: dayName, value: dayRevenue };
-            });
-
-            setStats({ totalRevenue: revenue, totalOrders: orders.length, activeProducts: products.length });
-            setLowStockItems(lowStock);
-            setRecentActivity(recent);
+            setStats({ totalRevenue: Number(dashboard.totalRevenue) || 0, totalOrders: dashboard.totalOrders, activeProducts: dashboard.activeProducts });
+            setLowStockItems(lowStockRes.data.content || []);
+            setLowStockCount(lowStockRes.data.totalElements || 0);
+            setRecentActivity(dashboard.recentOrders);
             setChartData(chartData);
 
         } catch (error) {
@@ -207,13 +187,13 @@ const Dashboard = () => {
                                         <AlertTriangle className="w-4 h-4 text-red-500" />
                                         <h3 className="font-bold text-red-700 text-sm">Low Stock Alerts</h3>
                                     </div>
-                                    <span className="text-[10px] bg-white border border-red-100 text-red-600 px-2 py-0.5 rounded-full font-bold">{lowStockItems.length} items</span>
+                                    <span className="text-[10px] bg-white border border-red-100 text-red-600 px-2 py-0.5 rounded-full font-bold">{lowStockCount} items</span>
                                 </div>
                                 <div className="divide-y divide-slate-50">
                                     {lowStockItems.length > 0 ? lowStockItems.map((item) => {
-                                        const displayImage = item.imageUrl || (item.variants && item.variants.length > 0 ? item.variants[0].imageUrl : null);
+                                        const displayImage = item.imageUrl;
                                         return (
-                                            <div key={item.id} className="p-4 flex items-center gap-3 hover:bg-slate-50 transition cursor-pointer" onClick={() => navigate('/dashboard/products')}>
+                                            <div key={item.productId} className="p-4 flex items-center gap-3 hover:bg-slate-50 transition cursor-pointer" onClick={() => navigate('/dashboard/products')}>
                                                 <div className="w-10 h-10 bg-slate-100 rounded-lg flex items-center justify-center text-slate-400 font-bold border border-slate-200 overflow-hidden flex-shrink-0">
                                                     {getImageUrl(displayImage) ? (
                                                         <img src={getImageUrl(displayImage)} alt={item.name} className="w-full h-full object-cover" />
@@ -221,7 +201,7 @@ const Dashboard = () => {
                                                 </div>
                                                 <div className="flex-1">
                                                     <p className="text-sm font-bold text-slate-800 line-clamp-1">{item.name}</p>
-                                                    <p className="text-xs text-red-500 font-semibold">Only {item.totalStock} left</p>
+                                                    <p className="text-xs text-red-500 font-semibold">Only {item.stock} left</p>
                                                 </div>
                                                 <button className="px-3 py-1 text-xs border border-slate-200 rounded hover:bg-white hover:border-blue-300 hover:text-blue-600 transition no-print">Restock</button>
                                             </div>
@@ -7,10 +7,15 @@ import {
     X, Filter, ChevronDown, ArrowUp, ArrowDown, DollarSign, Activity
 } from 'lucide-react';
 
+// Orders are fetched a page at a time, newest first; "Load more" follows the server's cursor
+const PAGE_SIZE = 50;
+
 const ManageOrders = () => {
     const navigate = useNavigate();
 
     const [orders, setOrders] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [products, setProducts] = useState({}); 
     const [loading, setLoading] = useState(true);
     const [stats, setStats] = useState({ totalRevenue: 0, pendingCount: 0, todaysOrders: 0 });
@@ -32,10 +37,11 @@ const ManageOrders = () => {
 
     const fetchData = async () => {
         try {
-            // Fetch Orders AND Products
-            const [orderRes, productRes] = await Promise.all([
-                api.get('/orders'),
-                api.get('/products')
+            // Fetch the first page of Orders, Products, and today's totals
+            const [orderRes, productRes, dashboardRes] = await Promise.all([
+                api.get('/orders', { params: { limit: PAGE_SIZE } }),
+                api.get('/products'),
+                api.get('/admin/dashboard', { params: { days: 1 } })
             ]);
 
             const orderData = Array.isArray(orderRes.data) ? orderRes.data : (orderRes.data.content || []);
@@ -46,8 +52,9 @@ const ManageOrders = () => {
             productData.forEach(p => productMap[p.id] = p);
 
             setOrders(orderData);
+            setNextCursor(orderRes.headers['x-next-cursor'] || null);
             setProducts(productMap);
-            calculateStats(orderData);
+            calculateStats(dashboardRes.data);
         } catch (error) {
             console.error("Failed to fetch data", error);
         } finally {
@@ -55,12 +62,26 @@ const ManageOrders = () => {
         }
     };
 
-    const calculateStats = (data) => {
-        const today = new Date().toDateString();
+    const loadMore = async () => {
+        setLoadingMore(true);
+        try {
+            const res = await api.get('/orders', { params: { limit: PAGE_SIZE, cursor: nextCursor } });
+            setOrders(prev => [...prev, ...res.data]);
+            setNextCursor(res.headers['x-next-cursor'] || null);
+        } catch (error) {
+            console.error("Failed to load more orders", error);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
+    // Totals cover every order (server-side rollups), not just the pages loaded so far
+    const calculateStats = (dashboard) => {
+        const today = dashboard.daily[dashboard.daily.length - 1];
         setStats({
-            totalRevenue: data.filter(o => o.status !== 'CANCELLED').reduce((sum, o) => sum + (o.totalAmount || 0), 0),
-            pendingCount: data.filter(o => o.status === 'PENDING').length,
-            todaysOrders: data.filter(o => new Date(o.orderDate).toDateString() === today).length
+            totalRevenue: Number(dashboard.totalRevenue) || 0,
+            pendingCount: dashboard.ordersByStatus.PENDING || 0,
+            todaysOrders: today ? today.orders : 0
         });
     };
 
@@ -70,6 +91,8 @@ const ManageOrders = () => {
             setOrders(orders.map(order => 
                 order.id === orderId ? { ...order, status: newStatus } : order
             ));
+            const dashboardRes = await api.get('/admin/dashboard', { params: { days: 1 } });
+            calculateStats(dashboardRes.data);
         } catch (error) {
             console.error("Status update failed", error);
             alert("Failed to update status.");
@@ -235,7 +258,7 @@ const ManageOrders = () => {
 
                         <div className="flex justify-between items-end">
                             <div><h2 className="text-2xl font-bold text-slate-800">Orders</h2><p className="text-sm text-slate-500 mt-1">Track and manage customer orders.</p></div>
-                            <span className="px-3 py-1 bg-white border border-slate-200 rounded-lg text-xs font-semibold text-slate-600 shadow-sm">Total: {filteredAndSortedOrders.length}</span>
+                            <span className="px-3 py-1 bg-white border border-slate-200 rounded-lg text-xs font-semibold text-slate-600 shadow-sm">Showing: {filteredAndSortedOrders.length}{nextCursor ? '+' : ''}</span>
                         </div>
 
                         <div className="bg-white rounded-xl border border-slate-200 shadow-sm overflow-hidden">
@@ -288,6 +311,11 @@ const ManageOrders = () => {
                                     </tbody>
                                 </table>
                             </div>
+                            {nextCursor && (
+                                <div className="p-4 border-t border-slate-100 flex justify-center">
+                                    <button onClick={loadMore} disabled={loadingMore} className="px-4 py-2 text-xs font-bold text-blue-600 bg-blue-50 hover:bg-blue-100 rounded-lg transition disabled:opacity-50">{loadingMore ? 'Loading...' : 'Load more orders'}</button>
+                                </div>
+                            )}
                         </div>
                     </div>
                 </div>
@@ -336,7 +364,7 @@ const ManageOrders = () => {
                                         return (
                                             <div key={index} className="flex gap-4 p-5 items-center hover:bg-slate-50/50 transition">
                                                 <div className="w-14 h-14 bg-slate-100 border border-slate-200 rounded-lg overflow-hidden flex-shrink-0 flex items-center justify-center">
-                                                    {getImageUrl(product.imageUrl) ? <img src={getImageUrl(product.imageUrl)} alt={item.productName} className="w-full h-full object-cover" /> : <Package className="w-6 h-6 text-slate-300" />}
+                                                    {getImageUrl(product.thumbnailUrl || product.imageUrl) ? <img src={getImageUrl(product.thumbnailUrl || product.imageUrl)} alt={item.productName} className="w-full h-full object-cover" /> : <Package className="w-6 h-6 text-slate-300" />}
                                                 </div>
                                                 <div className="flex-1">
                                                     <h5 className="font-bold text-slate-800 text-sm">{item.productName || `Product ID: ${item.productId}`}</h5>
@@ -112,6 +112,8 @@ const ManageProducts = () => {
 
     // --- UI STATE ---
     const [expandedProductId, setExpandedProductId] = useState(null);
+    // The list only carries summaries; variants are loaded per product when its row is expanded
+    const [variantsByProduct, setVariantsByProduct] = useState({});
     const [isSubmitting, setIsSubmitting] = useState(false);
     const [showLogoutConfirm, setShowLogoutConfirm] = useState(false);
 
@@ -186,24 +188,27 @@ const ManageProducts = () => {
 
     const closeConfirmModal = () => setConfirmModal({ show: false, title: '', message: '', onConfirm: null });
 
-    const calculateTotalStock = (product) => {
-        if (product.variants && product.variants.length > 0) {
-            return product.variants.reduce((total, variant) => total + (variant.stock || 0), 0);
-        }
-        return product.stock || 0;
-    };
+    const calculateTotalStock = (product) => product.totalStock || 0;
 
     const getPriceDisplay = (product) => {
-        const prices = product.variants?.map(v => v.price).filter(p => p !== null && p > 0) || [];
-        if (product.price) prices.push(product.price);
-        if (prices.length === 0) return "N/A";
-        const min = Math.min(...prices);
-        const max = Math.max(...prices);
+        const min = product.minPrice ?? product.price;
+        const max = product.maxPrice ?? product.price;
+        if (!min) return "N/A";
         if (min === max) return `RM ${min.toLocaleString()}`;
         return `RM ${min.toLocaleString()} - RM ${max.toLocaleString()}`;
     };
 
-    const toggleExpand = (id) => setExpandedProductId(prev => prev === id ? null : id);
+    const fetchVariants = async (productId) => {
+        try {
+            const res = await api.get(`/products/${productId}`);
+            setVariantsByProduct(prev => ({ ...prev, [productId]: res.data.variants || [] }));
+        } catch (error) { showNotification('error', "Error fetching variants"); }
+    };
+
+    const toggleExpand = (id) => {
+        if (expandedProductId !== id) fetchVariants(id);
+        setExpandedProductId(prev => prev === id ? null : id);
+    };
     const getImageUrl = (path) => path ? `http://localhost:8080/${path}` : null;
 
     // --- FILTER LOGIC ---
@@ -356,6 +361,7 @@ const ManageProducts = () => {
             showNotification('success', "Variant saved successfully!");
             setIsVariantModalOpen(false);
             fetchProducts(); 
+            fetchVariants(currentProductId);
         } catch (error) { 
             console.error(error);
             showNotification('error', "Failed to save variant."); 
@@ -373,6 +379,7 @@ const ManageProducts = () => {
                 await api.put(`/variants/${variantForm.id}/stock?newStock=${newStock}`);
                 showNotification('success', "Stock updated!");
                 fetchProducts();
+                fetchVariants(currentProductId);
             } 
             setVariantForm(prev => ({ ...prev, stock: newStock }));
             setIsStockModalOpen(false);
@@ -403,7 +410,8 @@ const ManageProducts = () => {
                 setIsSubmitting(true);
                 try {
                     await api.delete(`/variants/${vid}`);
-                    setProducts(prev => prev.map(p => { if (p.id !== pid) return p; return { ...p, variants: p.variants.filter(v => v.id !== vid) }; }));
+                    setVariantsByProduct(prev => ({ ...prev, [pid]: (prev[pid] || []).filter(v => v.id !== vid) }));
+                    fetchProducts();
                     showNotification('success', "Variant deleted.");
                 } catch (e) { showNotification('error', "Failed to delete variant."); }
                 finally { setIsSubmitting(false); closeConfirmModal(); }
@@ -518,6 +526,7 @@ const ManageProducts = () => {
                                     {filteredAndSortedProducts.map(product => {
                                         const totalStock = calculateTotalStock(product);
                                         const isExpanded = expandedProductId === product.id;
+                                        const variants = variantsByProduct[product.id] || [];
                                         return (
                                             <>
                                                 <tr key={product.id} className={`cursor-pointer hover:bg-slate-50/80 transition-colors ${isExpanded ? 'bg-slate-50/50' : ''}`} onClick={() => toggleExpand(product.id)}>
@@ -525,7 +534,7 @@ const ManageProducts = () => {
                                                         <div className="flex items-center gap-4">
                                                             <div className={`p-1 rounded-full transition-transform duration-200 ${isExpanded ? 'bg-blue-100 text-blue-600 rotate-180' : 'text-slate-400'}`}><ChevronDown className="w-4 h-4" /></div>
                                                             <div className="w-10 h-10 bg-slate-100 rounded-lg flex items-center justify-center text-slate-400 font-bold border border-slate-200 overflow-hidden flex-shrink-0">
-                                                                {getImageUrl(product.imageUrl) ? <img src={getImageUrl(product.imageUrl)} alt={product.name} className="w-full h-full object-cover" /> : <ImageIcon className="w-5 h-5" />}
+                                                                {getImageUrl(product.thumbnailUrl || product.imageUrl) ? <img src={getImageUrl(product.thumbnailUrl || product.imageUrl)} alt={product.name} className="w-full h-full object-cover" /> : <ImageIcon className="w-5 h-5" />}
                                                             </div>
                                                             <div><p className="font-bold text-slate-800">{product.name}</p><p className="text-xs text-slate-500">{product.brand || 'No Brand'}</p></div>
                                                         </div>
@@ -550,11 +559,11 @@ const ManageProducts = () => {
                                                                     <div className="flex items-center gap-2"><Layers className="w-4 h-4 text-blue-600" /><span className="text-xs font-bold text-slate-500 uppercase tracking-wide">Variants</span></div>
                                                                     <button onClick={() => openAddVariantModal(product.id)} className="text-xs font-bold text-blue-600 hover:text-blue-700 hover:bg-blue-50 px-3 py-1.5 rounded-lg border border-blue-100 transition flex items-center gap-1"><Plus className="w-3 h-3" /> Add Variant</button>
                                                                 </div>
-                                                                {(!product.variants || product.variants.length === 0) ? (
+                                                                {variants.length === 0 ? (
                                                                     <div className="text-center py-8 text-slate-400 text-sm italic">No variants added yet. Add one to manage stock.</div>
                                                                 ) : (
                                                                     <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-4">
-                                                                        {product.variants.map(v => {
+                                                                        {variants.map(v => {
                                                                             const hasColor = v.colorName && v.colorName !== 'Standard';
                                                                             const hasStorage = v.storage && v.storage !== 'Standard';
                                                                             let variantHeader = "Default";
@@ -565,7 +574,7 @@ const ManageProducts = () => {
                                                                             return (
                                                                                 <div key={v.id} className="p-3 border border-slate-200 rounded-xl bg-white hover:border-blue-200 hover:shadow-md transition-all flex flex-col justify-between group">
                                                                                     <div className="flex items-start gap-3 mb-3">
-                                                                                        {v.imageUrl ? <img src={getImageUrl(v.imageUrl)} className="w-10 h-10 rounded-lg object-cover border border-slate-100" /> : hasColor ? <div className="w-10 h-10 rounded-lg border border-slate-200 flex items-center justify-center bg-slate-50"><div className="w-6 h-6 rounded-full shadow-sm border border-slate-200" style={{backgroundColor: v.colorHex || '#000'}}></div></div> : <div className="w-10 h-10 rounded-lg bg-slate-100 flex items-center justify-center text-slate-400"><Package className="w-5 h-5" /></div>}
+                                                                                        {v.imageUrl ? <img src={getImageUrl(v.imageRenditions?.thumbnailUrl || v.imageUrl)} className="w-10 h-10 rounded-lg object-cover border border-slate-100" /> : hasColor ? <div className="w-10 h-10 rounded-lg border border-slate-200 flex items-center justify-center bg-slate-50"><div className="w-6 h-6 rounded-full shadow-sm border border-slate-200" style={{backgroundColor: v.colorHex || '#000'}}></div></div> : <div className="w-10 h-10 rounded-lg bg-slate-100 flex items-center justify-center text-slate-400"><Package className="w-5 h-5" /></div>}
                                                                                         <div><p className="text-sm font-bold text-slate-900">{variantHeader}</p><p className="text-xs text-slate-500 font-medium">{v.price ? `RM ${v.price.toLocaleString()}` : "Base Price"}</p></div>
                                                                                         <span className={`ml-auto text-[10px] font-bold px-2 py-0.5 rounded border ${v.stock > 0 ? 'bg-emerald-50 text-emerald-700 border-emerald-100' : 'bg-red-50 text-red-700 border-red-100'}`}>{v.stock} Left</span>
                                                                                     </div>